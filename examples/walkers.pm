@@ -0,0 +1,19 @@
+// Two independent random walkers in separate modules
+// (their commands are not synchronised, so in each state where both are enabled,
+// one of them is chosen uniformly at random, as for any DTMC with local nondeterminism)
+
+dtmc
+
+const int N = 5;
+
+module walker1
+
+	x1 : [0..N] init 0;
+	
+	[] x1<N -> 0.6 : (x1'=x1+1) + 0.4 : (x1'=max(x1-1,0));
+	
+endmodule
+
+module walker2 = walker1 [ x1=x2 ] endmodule
+
+label "done" = x1=N & x2=N;
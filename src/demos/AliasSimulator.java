@@ -0,0 +1,361 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import parser.Values;
+import parser.ast.Expression;
+import parser.ast.ModulesFile;
+import prism.ModelType;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+import simulator.SimulatorEngine;
+
+/**
+ * An example class showing fast simulation of paths through a model that has already been
+ * built explicitly (as an {@link ExplicitSparseModel}), rather than through the model description
+ * as done by PRISM's {@link simulator.SimulatorEngine}.
+ * 
+ * A Walker alias table is precomputed for each state of a DTMC or CTMC (over the transitions
+ * of all its choices, which PRISM combines, summing their rates) and for each choice of an MDP,
+ * so that sampling a successor takes constant time
+ * (one random number for the transition, plus one for the sojourn time of a CTMC).
+ * For MDPs, a (memoryless, deterministic) strategy gives the choice to take in each state.
+ * 
+ * Running the class compares the number of steps per second with PRISM's simulator for {@code nacl.sm},
+ * and checks the mean time to reach a target against the expected time computed by PRISM.
+ */
+public class AliasSimulator
+{
+	// Model to simulate
+	private ExplicitSparseModel model;
+	// Choice (index within state) to take in each state (for MDPs)
+	private int[] strategy;
+	// Is this a continuous-time model?
+	private boolean continuousTime;
+	// Is there one alias table per state (for Markov chains), rather than per choice?
+	private boolean perState;
+	// Alias tables, indexed as for transitions: probability of keeping the transition
+	// (rather than its alias), and alias (offset within state/choice)
+	private double[] keepProbs;
+	private int[] aliases;
+	// Total rate of each state/choice (used for CTMCs)
+	private double[] exitRates;
+	// Random number generator
+	private SplittableRandom rng;
+
+	// Current path: state, time and number of steps
+	private int state;
+	private double time;
+	private long numSteps;
+
+	/**
+	 * Create a simulator for a DTMC or CTMC.
+	 * @param model The model
+	 * @param seed Seed for random number generation
+	 */
+	public AliasSimulator(ExplicitSparseModel model, long seed) throws PrismException
+	{
+		this(model, null, seed);
+	}
+
+	/**
+	 * Create a simulator for a model, resolving any nondeterminism with a strategy.
+	 * @param model The model
+	 * @param strategy Choice (index within each state) to take in each state (may be null for Markov chains)
+	 * @param seed Seed for random number generation
+	 */
+	public AliasSimulator(ExplicitSparseModel model, int[] strategy, long seed) throws PrismException
+	{
+		if (strategy == null && model.getModelType().nondeterministic()) {
+			throw new PrismException("A strategy is needed to simulate a " + model.getModelType());
+		}
+		this.model = model;
+		this.strategy = strategy;
+		this.continuousTime = model.getModelType() == ModelType.CTMC;
+		this.perState = !model.getModelType().nondeterministic();
+		this.rng = new SplittableRandom(seed);
+		buildAliasTables();
+		initialisePath(0);
+	}
+
+	/**
+	 * Build alias tables (Vose's method) for each state (Markov chains) or each choice (MDPs).
+	 * Since the transitions of a state's choices are stored contiguously, both are just ranges of transitions.
+	 */
+	private void buildAliasTables()
+	{
+		int numTables = perState ? model.getNumStates() : model.getNumChoices();
+		int[] tableStarts = perState ? tableStartsPerState() : model.getTransStarts();
+		double[] probs = model.getProbabilities();
+		keepProbs = new double[model.getNumTransitions()];
+		aliases = new int[model.getNumTransitions()];
+		exitRates = new double[numTables];
+		int maxSize = 0;
+		for (int c = 0; c < numTables; c++) {
+			maxSize = Math.max(maxSize, tableStarts[c + 1] - tableStarts[c]);
+		}
+		int[] small = new int[maxSize];
+		int[] large = new int[maxSize];
+		double[] scaled = new double[maxSize];
+		for (int c = 0; c < numTables; c++) {
+			int start = tableStarts[c];
+			int size = tableStarts[c + 1] - start;
+			double total = 0.0;
+			for (int j = start; j < start + size; j++) {
+				total += probs[j];
+			}
+			exitRates[c] = total;
+			int numSmall = 0, numLarge = 0;
+			for (int k = 0; k < size; k++) {
+				scaled[k] = probs[start + k] * size / total;
+				if (scaled[k] < 1.0) {
+					small[numSmall++] = k;
+				} else {
+					large[numLarge++] = k;
+				}
+			}
+			while (numSmall > 0 && numLarge > 0) {
+				int s = small[--numSmall];
+				int l = large[--numLarge];
+				keepProbs[start + s] = scaled[s];
+				aliases[start + s] = l;
+				scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+				if (scaled[l] < 1.0) {
+					small[numSmall++] = l;
+				} else {
+					large[numLarge++] = l;
+				}
+			}
+			// Anything left over has probability 1 (up to round-off)
+			while (numLarge > 0) {
+				int l = large[--numLarge];
+				keepProbs[start + l] = 1.0;
+				aliases[start + l] = l;
+			}
+			while (numSmall > 0) {
+				int s = small[--numSmall];
+				keepProbs[start + s] = 1.0;
+				aliases[start + s] = s;
+			}
+		}
+	}
+
+	/**
+	 * Get the start of the transitions of each state (and the end of the last one).
+	 */
+	private int[] tableStartsPerState()
+	{
+		int numStates = model.getNumStates();
+		int[] choiceStarts = model.getChoiceStarts();
+		int[] transStarts = model.getTransStarts();
+		int[] stateStarts = new int[numStates + 1];
+		for (int s = 0; s <= numStates; s++) {
+			stateStarts[s] = transStarts[choiceStarts[s]];
+		}
+		return stateStarts;
+	}
+
+	/**
+	 * Start a new path in a given state.
+	 */
+	public void initialisePath(int s)
+	{
+		state = s;
+		time = 0.0;
+		numSteps = 0;
+	}
+
+	/**
+	 * Take one random step along the current path.
+	 * Returns false (and does nothing) if the current state is a deadlock.
+	 */
+	public boolean step()
+	{
+		int[] choiceStarts = model.getChoiceStarts();
+		int[] transStarts = model.getTransStarts();
+		int c = choiceStarts[state];
+		int numChoices = choiceStarts[state + 1] - c;
+		if (numChoices == 0) {
+			return false;
+		}
+		// Alias table for the state (Markov chains) or the choice picked by the strategy (MDPs)
+		int start, size;
+		if (perState) {
+			start = transStarts[c];
+			size = transStarts[choiceStarts[state + 1]] - start;
+			c = state;
+		} else {
+			c += strategy[state];
+			start = transStarts[c];
+			size = transStarts[c + 1] - start;
+		}
+		// Pick a column uniformly, then either keep it or take its alias
+		double u = rng.nextDouble() * size;
+		int k = (int) u;
+		if (u - k >= keepProbs[start + k]) {
+			k = aliases[start + k];
+		}
+		if (continuousTime) {
+			time += -Math.log(1.0 - rng.nextDouble()) / exitRates[c];
+		} else {
+			time += 1.0;
+		}
+		state = model.getSuccessors()[start + k];
+		numSteps++;
+		return true;
+	}
+
+	public int getCurrentState()
+	{
+		return state;
+	}
+
+	public double getTotalTime()
+	{
+		return time;
+	}
+
+	public long getNumSteps()
+	{
+		return numSteps;
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private AliasSimulator()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new AliasSimulator().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+
+			// Parse and load a PRISM model from a file, as in SimulateModel
+			ModulesFile modulesFile = prism.parseModelFile(new File("examples/nacl.sm"));
+			prism.loadPRISMModel(modulesFile);
+			Values vals = new Values();
+			vals.addValue("N1", 10);
+			vals.addValue("N2", 10);
+			modulesFile.setSomeUndefinedConstants(vals);
+			prism.setPRISMModelConstants(vals);
+			prism.loadModelIntoSimulator();
+			SimulatorEngine sim = prism.getSimulator();
+
+			// Build the model explicitly and create the alias tables
+			long start = System.nanoTime();
+			ExplicitSparseModel model = ExplicitSparseModel.build(modulesFile, prism);
+			AliasSimulator aliasSim = new AliasSimulator(model, 1234);
+			long timeSetup = System.nanoTime() - start;
+			System.out.println("Model: " + model.getNumStates() + " states; built with alias tables in " + timeSetup / 1000000 + " ms");
+
+			// Long paths
+			int numSteps = 5000000;
+			start = System.nanoTime();
+			sim.createNewOnTheFlyPath();
+			sim.initialisePath(null);
+			for (int i = 0; i < numSteps; i++) {
+				sim.automaticTransition();
+			}
+			long timePrism = System.nanoTime() - start;
+			start = System.nanoTime();
+			aliasSim.initialisePath(0);
+			for (int i = 0; i < numSteps; i++) {
+				aliasSim.step();
+			}
+			long timeAlias = System.nanoTime() - start;
+			System.out.printf("Steps per second: %.3g (SimulatorEngine), %.3g (alias tables)%n", numSteps * 1e9 / timePrism, numSteps * 1e9 / timeAlias);
+			System.out.printf("Path time after %d steps: %.4g (SimulatorEngine), %.4g (alias tables)%n", numSteps, sim.getPath().getTotalTime(), aliasSim.getTotalTime());
+
+			// Paths up until a target is reached, as in SimulateModel
+			Expression target = prism.parsePropertiesString(modulesFile, "na=2").getProperty(0);
+			BitSet targetStates = model.getStatesSatisfying(CompiledExpression.compileBoolean(target));
+			int numPaths = 100000;
+			double totalTimePrism = 0.0, totalTimeAlias = 0.0, totalTimeAliasSq = 0.0;
+			start = System.nanoTime();
+			for (int i = 0; i < numPaths; i++) {
+				sim.initialisePath(null);
+				while (!target.evaluateBoolean(sim.getCurrentState())) {
+					sim.automaticTransition();
+				}
+				totalTimePrism += sim.getPath().getTotalTime();
+			}
+			timePrism = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int i = 0; i < numPaths; i++) {
+				aliasSim.initialisePath(0);
+				while (!targetStates.get(aliasSim.getCurrentState())) {
+					aliasSim.step();
+				}
+				totalTimeAlias += aliasSim.getTotalTime();
+				totalTimeAliasSq += aliasSim.getTotalTime() * aliasSim.getTotalTime();
+			}
+			timeAlias = System.nanoTime() - start;
+			System.out.printf("%d paths to %s: %d ms (SimulatorEngine), %d ms (alias tables)%n", numPaths, target, timePrism / 1000000, timeAlias / 1000000);
+			System.out.printf("Mean time to reach %s: %.4g (SimulatorEngine), %.4g (alias tables)%n", target, totalTimePrism / numPaths, totalTimeAlias / numPaths);
+
+			// Check the mean time against the expected time computed by PRISM
+			// (allowing 5 standard errors, so a correct simulator fails very rarely)
+			double expected = (Double) prism.modelCheck("R{\"time\"}=?[F " + target + "]").getResult();
+			double mean = totalTimeAlias / numPaths;
+			double stdErr = Math.sqrt((totalTimeAliasSq / numPaths - mean * mean) / (numPaths - 1));
+			System.out.printf("Expected time to reach %s (PRISM): %.4g (alias tables differ by %.2f standard errors)%n", target, expected, Math.abs(mean - expected) / stdErr);
+			if (Math.abs(mean - expected) > 5 * stdErr) {
+				throw new PrismException("Mean time to reach " + target + " from simulation differs from PRISM");
+			}
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (FileNotFoundException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,419 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import parser.State;
+import prism.ModelGenerator;
+import prism.PrismException;
+
+/**
+ * An example class showing approximate ("bitstate") exploration of a model that is too large to store,
+ * driving a {@link prism.ModelGenerator} directly and storing only a hash of each visited state:
+ * either a 64-bit fingerprint in an open-addressed table ({@link Mode#HASH_COMPACTION})
+ * or a few bits in a Bloom filter ({@link Mode#BLOOM_FILTER}).
+ * Distinct states with colliding hashes cause the later one (and possibly its successors) to be omitted,
+ * so the results (number of states, deadlocks, labels that are reachable) are under-approximations;
+ * a bound on the probability of any omission is reported alongside them.
+ * Only the hash table and the unexplored frontier (as full states) are kept in memory.
+ * 
+ * Both tables are lock-free (updated by compare-and-set), so exploration can use several threads,
+ * each with its own model generator (since generators hold the state being explored).
+ * A fingerprint occupies a single slot, so exactly one thread adds each state. A Bloom filter entry
+ * is several bits, set one at a time: two threads inserting the same state at the same moment
+ * can each set some of its bits, and then both count (and explore) it. So, with several threads,
+ * the counts of states, transitions and deadlocks for a Bloom filter are approximate,
+ * and can be slightly higher than for a single thread.
+ * 
+ * Running the class explores some large generated models.
+ */
+public class BitstateExploration
+{
+	/**
+	 * Storage mode
+	 */
+	public enum Mode {
+		HASH_COMPACTION, BLOOM_FILTER
+	};
+
+	// Storage mode
+	private Mode mode;
+	// Table size (log2): number of 64-bit slots (hash compaction) or bits (Bloom filter)
+	private int log2Size;
+	// Number of hash functions (Bloom filter)
+	private int numHashes;
+	// Table of fingerprints or bits
+	private AtomicLongArray table;
+	private long tableMask;
+
+	// Results
+	private AtomicLong numStates = new AtomicLong();
+	private AtomicLong numTransitions = new AtomicLong();
+	private AtomicLong numDeadlocks = new AtomicLong();
+	private boolean[] labelsReached;
+	private List<String> labelNames;
+	private boolean tableFull;
+
+	/**
+	 * Create an explorer.
+	 * @param mode Storage mode
+	 * @param log2Size Table size (log2): number of 64-bit slots (hash compaction) or bits (Bloom filter)
+	 * @param numHashes Number of hash functions (Bloom filter only)
+	 */
+	public BitstateExploration(Mode mode, int log2Size, int numHashes)
+	{
+		this.mode = mode;
+		this.log2Size = log2Size;
+		this.numHashes = numHashes;
+	}
+
+	/**
+	 * Explore all (or, approximately, most) reachable states of a model,
+	 * using one thread per supplied model generator.
+	 * @param modelGens Supplier of model generators for the model (one is requested per thread)
+	 * @param numThreads Number of threads
+	 */
+	public void explore(Supplier<ModelGenerator<?>> modelGens, int numThreads) throws PrismException
+	{
+		long size = 1L << log2Size;
+		table = new AtomicLongArray((int) (mode == Mode.HASH_COMPACTION ? size : size >> 6));
+		tableMask = size - 1;
+		numStates.set(0);
+		numTransitions.set(0);
+		numDeadlocks.set(0);
+		tableFull = false;
+		ModelGenerator<?> modelGen0 = modelGens.get();
+		labelNames = modelGen0.getLabelNames();
+		labelsReached = new boolean[labelNames.size()];
+
+		// Shared frontier, and count of states added to it but not yet fully explored
+		ConcurrentLinkedDeque<State> frontier = new ConcurrentLinkedDeque<>();
+		AtomicLong pending = new AtomicLong();
+		State init = modelGen0.getInitialState();
+		insert(hash(init));
+		pending.incrementAndGet();
+		frontier.add(init);
+
+		Thread[] threads = new Thread[numThreads];
+		PrismException[] errors = new PrismException[numThreads];
+		for (int t = 0; t < numThreads; t++) {
+			ModelGenerator<?> modelGen = t == 0 ? modelGen0 : modelGens.get();
+			int threadIndex = t;
+			threads[t] = new Thread(() -> {
+				try {
+					exploreFrom(modelGen, frontier, pending);
+				} catch (PrismException e) {
+					errors[threadIndex] = e;
+					// Let the other threads finish
+					pending.set(0);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				throw new PrismException("Interrupted during exploration");
+			}
+		}
+		for (PrismException e : errors) {
+			if (e != null) {
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Worker loop: take states from the frontier and explore them until there are none left anywhere.
+	 */
+	private void exploreFrom(ModelGenerator<?> modelGen, ConcurrentLinkedDeque<State> frontier, AtomicLong pending) throws PrismException
+	{
+		int numLabels = labelsReached.length;
+		while (pending.get() > 0) {
+			State state = frontier.pollLast();
+			if (state == null) {
+				// Other threads are still exploring; wait for more work
+				Thread.yield();
+				continue;
+			}
+			modelGen.exploreState(state);
+			for (int l = 0; l < numLabels; l++) {
+				if (!labelsReached[l] && modelGen.isLabelTrue(l)) {
+					labelsReached[l] = true;
+				}
+			}
+			int numChoices = modelGen.getNumChoices();
+			if (numChoices == 0) {
+				numDeadlocks.incrementAndGet();
+			}
+			long count = 0;
+			for (int i = 0; i < numChoices; i++) {
+				int numTrans = modelGen.getNumTransitions(i);
+				count += numTrans;
+				for (int offset = 0; offset < numTrans; offset++) {
+					State target = modelGen.computeTransitionTarget(i, offset);
+					if (insert(hash(target))) {
+						pending.incrementAndGet();
+						frontier.addLast(target);
+					}
+				}
+			}
+			numTransitions.addAndGet(count);
+			pending.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Add a state (given by its 64-bit hash) to the table, returning true if it was not already present.
+	 * For a Bloom filter, this is true if this call set any of the state's bits, which can happen
+	 * for more than one thread inserting the same state concurrently (see the class comment).
+	 */
+	private boolean insert(long h)
+	{
+		boolean added;
+		if (mode == Mode.HASH_COMPACTION) {
+			// Open addressing (linear probing) on the fingerprint; 0 marks an empty slot
+			long fp = h == 0 ? 1 : h;
+			long slot = mix(h) & tableMask;
+			added = false;
+			for (long probes = 0; probes <= tableMask; probes++) {
+				int i = (int) slot;
+				long cur = table.get(i);
+				if (cur == fp) {
+					break;
+				}
+				if (cur == 0) {
+					if (table.compareAndSet(i, 0, fp)) {
+						added = true;
+						break;
+					}
+					// Lost a race for this slot: look at it again
+					probes--;
+					continue;
+				}
+				slot = (slot + 1) & tableMask;
+			}
+			if (!added && table.get((int) slot) != fp) {
+				// Table full: treat the state as already seen
+				tableFull = true;
+			}
+		} else {
+			// Bloom filter: derive k bit positions from two halves of the hash (double hashing)
+			long h1 = h;
+			long h2 = mix(h) | 1;
+			added = false;
+			for (int k = 0; k < numHashes; k++) {
+				long bit = (h1 + k * h2) & tableMask;
+				int w = (int) (bit >>> 6);
+				long mask = 1L << bit;
+				while (true) {
+					long old = table.get(w);
+					if ((old & mask) != 0) {
+						break;
+					}
+					if (table.compareAndSet(w, old, old | mask)) {
+						added = true;
+						break;
+					}
+				}
+			}
+		}
+		if (added) {
+			numStates.incrementAndGet();
+		}
+		return added;
+	}
+
+	/**
+	 * Compute a 64-bit hash of a state's variable values.
+	 */
+	private static long hash(State state) throws PrismException
+	{
+		long h = 0x9E3779B97F4A7C15L;
+		for (Object v : state.varValues) {
+			long x;
+			if (v instanceof Integer) {
+				x = ((Integer) v).intValue();
+			} else if (v instanceof Boolean) {
+				x = ((Boolean) v).booleanValue() ? 1 : 0;
+			} else if (v instanceof Double) {
+				x = Double.doubleToLongBits((Double) v);
+			} else {
+				x = v.hashCode();
+			}
+			h = mix(h ^ x) + 0x9E3779B97F4A7C15L;
+		}
+		return mix(h);
+	}
+
+	/**
+	 * Bit mixing function (from SplitMix64).
+	 */
+	private static long mix(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	// Results
+
+	/**
+	 * Get the number of states stored (a lower bound on the number of reachable states, unless the table filled up).
+	 * For a Bloom filter with several threads, this is approximate (concurrent insertions of a state can count it twice).
+	 */
+	public long getNumStates()
+	{
+		return numStates.get();
+	}
+
+	/**
+	 * Get an estimate of the number of reachable states. For a Bloom filter, this is
+	 * based on the number of bits set, and also counts states whose insertion collided.
+	 */
+	public double getEstimatedNumStates()
+	{
+		if (mode == Mode.HASH_COMPACTION) {
+			return numStates.get();
+		}
+		long bitsSet = 0;
+		for (int w = 0; w < table.length(); w++) {
+			bitsSet += Long.bitCount(table.get(w));
+		}
+		double m = tableMask + 1.0;
+		return -(m / numHashes) * Math.log(1.0 - bitsSet / m);
+	}
+
+	public long getNumTransitions()
+	{
+		return numTransitions.get();
+	}
+
+	public long getNumDeadlocks()
+	{
+		return numDeadlocks.get();
+	}
+
+	/**
+	 * Was a state satisfying label {@code label} found?
+	 * (If not, it may still be reachable, with at most the probability of {@link #getOmissionProbabilityBound()}.)
+	 */
+	public boolean isLabelReached(String label) throws PrismException
+	{
+		int l = labelNames.indexOf(label);
+		if (l == -1) {
+			throw new PrismException("Unknown label \"" + label + "\"");
+		}
+		return labelsReached[l];
+	}
+
+	/**
+	 * Was the table too full to store all states found (in which case no bound applies)?
+	 */
+	public boolean isTableFull()
+	{
+		return tableFull;
+	}
+
+	/**
+	 * Get an upper bound on the expected number of reachable states omitted directly
+	 * due to hash collisions (their successors may also be missed),
+	 * assuming independent, uniformly distributed hashes.
+	 * For hash compaction, this is the expected number of pairs of the n states stored
+	 * that share a 64-bit fingerprint, at most n(n-1)/2 * 2^-64.
+	 * For a Bloom filter, it is the expected number of false positives over all n insertions,
+	 * at most n * (1 - e^(-kn/m))^k for m bits and k hash functions.
+	 */
+	public double getExpectedOmissions()
+	{
+		double n = numStates.get();
+		if (mode == Mode.HASH_COMPACTION) {
+			return n * (n - 1) / 2 * Math.pow(2, -64);
+		} else {
+			double m = tableMask + 1.0;
+			return n * Math.pow(1 - Math.exp(-numHashes * n / m), numHashes);
+		}
+	}
+
+	/**
+	 * Get an upper bound on the probability that at least one reachable state was omitted
+	 * (the expected number of omissions, capped at 1; or 1 if the table filled up).
+	 */
+	public double getOmissionProbabilityBound()
+	{
+		return tableFull ? 1.0 : Math.min(getExpectedOmissions(), 1.0);
+	}
+
+	/**
+	 * Get the memory used by the table, in bytes.
+	 */
+	public long getTableBytes()
+	{
+		return 8L * table.length();
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private BitstateExploration()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new BitstateExploration().run();
+	}
+
+	public void run()
+	{
+		try {
+			int numThreads = Runtime.getRuntime().availableProcessors();
+			for (Mode mode : Mode.values()) {
+				// 128 MB for hash compaction (2^24 fingerprints), 32 MB for the Bloom filter (2^28 bits)
+				BitstateExploration explorer = mode == Mode.HASH_COMPACTION ? new BitstateExploration(mode, 24, 0) : new BitstateExploration(mode, 28, 4);
+				for (int n : new int[] { 100, 1000, 2000 }) {
+					long start = System.nanoTime();
+					explorer.explore(() -> new MDPModelGenerator.GridModel(n), numThreads);
+					long time = System.nanoTime() - start;
+					System.out.println(mode + ", GridModel(" + n + "), " + numThreads + " threads, " + time / 1000000 + " ms:");
+					System.out.printf("  states: %d (estimate %.0f, exact %d), transitions: %d, deadlocks: %d%n", explorer.getNumStates(), explorer.getEstimatedNumStates(), 2L * n * n, explorer.getNumTransitions(), explorer.getNumDeadlocks());
+					System.out.printf("  \"target\" reached: %b, expected omissions <= %.3g, P(omission) <= %.3g, table: %.2f bytes/state%n", explorer.isLabelReached("target"), explorer.getExpectedOmissions(), explorer.getOmissionProbabilityBound(), (double) explorer.getTableBytes() / explorer.getNumStates());
+				}
+			}
+
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
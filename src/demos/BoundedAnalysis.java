@@ -0,0 +1,384 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.BitSet;
+
+import parser.ast.Expression;
+import parser.ast.ModulesFile;
+import prism.ModelType;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+
+/**
+ * An example class showing step-bounded and transient analysis of an {@link ExplicitSparseModel},
+ * with the repeated sparse matrix-vector multiplications done by a selectable {@link SparseKernels} backend.
+ * 
+ * The matrices can be used either in CSR format or in sliced ELLPACK layout
+ * (see {@link SparseKernels.SlicedMatrix}); only the latter lets the vector backend
+ * vectorise the short rows typical of these models.
+ * 
+ * Running the class checks results against PRISM for a couple of bounded properties
+ * from the other examples, and then compares the backends and layouts across some models,
+ * checking that they all give the same results.
+ */
+public class BoundedAnalysis
+{
+	// Model to analyse
+	private ExplicitSparseModel model;
+	// Matrix-vector multiplication kernels
+	private SparseKernels kernels;
+	// Whether to use the sliced layout
+	private boolean sliced;
+	
+	// Transposed (state-to-state) transition matrix, for transient analysis (built on demand)
+	private int[] rowStartsT;
+	private int[] colsT;
+	private double[] valsT;
+
+	// Sliced versions of the (choice-to-state) transition matrix and its transpose (built on demand)
+	private SparseKernels.SlicedMatrix matrixSliced;
+	private SparseKernels.SlicedMatrix matrixTSliced;
+
+	/**
+	 * Create an analyser for a model, using a given kernel backend
+	 */
+	public BoundedAnalysis(ExplicitSparseModel model, SparseKernels kernels)
+	{
+		this(model, kernels, false);
+	}
+
+	/**
+	 * Create an analyser for a model, using a given kernel backend
+	 * @param sliced Whether to use the sliced ELLPACK layout (rather than CSR)
+	 */
+	public BoundedAnalysis(ExplicitSparseModel model, SparseKernels kernels, boolean sliced)
+	{
+		this.model = model;
+		this.kernels = kernels;
+		this.sliced = sliced;
+	}
+
+	/**
+	 * Get the fraction of non-padding entries in the sliced transition matrix (1 if not sliced).
+	 */
+	public double getFillRatio()
+	{
+		return matrixSliced == null ? 1.0 : matrixSliced.getFillRatio();
+	}
+
+	/**
+	 * Compute the probabilities of reaching {@code target} within {@code k} steps, for all states.
+	 * For an MDP, this is the minimum or maximum probability, depending on {@code min}
+	 * (for a Markov chain, there is at most one choice per state, see {@link ExplicitSparseModel},
+	 * so {@code min} has no effect).
+	 * Deadlock states are treated as having a self-loop.
+	 */
+	public double[] boundedReachProbs(BitSet target, int k, boolean min)
+	{
+		int numStates = model.getNumStates();
+		int[] choiceStarts = model.getChoiceStarts();
+		double[] soln = new double[numStates];
+		double[] soln2 = new double[numStates];
+		double[] choiceVals = new double[model.getNumChoices()];
+		for (int s = target.nextSetBit(0); s >= 0; s = target.nextSetBit(s + 1)) {
+			soln[s] = 1.0;
+		}
+		if (sliced && matrixSliced == null) {
+			matrixSliced = kernels.slice(model.getTransStarts(), model.getSuccessors(), model.getProbabilities());
+		}
+		for (int iter = 0; iter < k; iter++) {
+			// Values for all choices, then min/max over each state's choices
+			if (sliced) {
+				kernels.multiply(matrixSliced, soln, choiceVals);
+			} else {
+				kernels.multiply(model.getTransStarts(), model.getSuccessors(), model.getProbabilities(), soln, choiceVals, 0, model.getNumChoices());
+			}
+			for (int s = 0; s < numStates; s++) {
+				int c0 = choiceStarts[s];
+				int c1 = choiceStarts[s + 1];
+				if (target.get(s) || c0 == c1) {
+					soln2[s] = soln[s];
+				} else {
+					double v = choiceVals[c0];
+					for (int c = c0 + 1; c < c1; c++) {
+						v = min ? Math.min(v, choiceVals[c]) : Math.max(v, choiceVals[c]);
+					}
+					soln2[s] = v;
+				}
+			}
+			double[] tmp = soln;
+			soln = soln2;
+			soln2 = tmp;
+		}
+		return soln;
+	}
+
+	/**
+	 * Compute the state distribution after {@code k} steps of a DTMC, starting from {@code initDist}.
+	 * Deadlock states are treated as having a self-loop.
+	 */
+	public double[] transientProbs(double[] initDist, int k) throws PrismException
+	{
+		buildTransposed();
+		int numStates = model.getNumStates();
+		if (sliced && matrixTSliced == null) {
+			matrixTSliced = kernels.slice(rowStartsT, colsT, valsT);
+		}
+		double[] dist = initDist.clone();
+		double[] dist2 = new double[numStates];
+		for (int iter = 0; iter < k; iter++) {
+			if (sliced) {
+				kernels.multiply(matrixTSliced, dist, dist2);
+			} else {
+				kernels.multiply(rowStartsT, colsT, valsT, dist, dist2, 0, numStates);
+			}
+			double[] tmp = dist;
+			dist = dist2;
+			dist2 = tmp;
+		}
+		return dist;
+	}
+
+	/**
+	 * Build the transpose of the DTMC's transition matrix, if not already done.
+	 * Each state has at most one choice (see {@link ExplicitSparseModel}), but for safety,
+	 * the transitions of all choices of a state are included.
+	 */
+	private void buildTransposed() throws PrismException
+	{
+		if (rowStartsT != null) {
+			return;
+		}
+		if (model.getModelType() != ModelType.DTMC) {
+			throw new PrismException("Transient analysis is only implemented for DTMCs");
+		}
+		int numStates = model.getNumStates();
+		int[] choiceStarts = model.getChoiceStarts();
+		int[] transStarts = model.getTransStarts();
+		int[] succs = model.getSuccessors();
+		double[] probs = model.getProbabilities();
+		// Count entries per row (i.e. per successor), adding self-loops for deadlocks
+		int[] starts = new int[numStates + 1];
+		for (int s = 0; s < numStates; s++) {
+			if (choiceStarts[s] == choiceStarts[s + 1]) {
+				starts[s + 1]++;
+			} else {
+				for (int j = transStarts[choiceStarts[s]]; j < transStarts[choiceStarts[s + 1]]; j++) {
+					starts[succs[j] + 1]++;
+				}
+			}
+		}
+		for (int t = 0; t < numStates; t++) {
+			starts[t + 1] += starts[t];
+		}
+		int[] next = new int[numStates];
+		System.arraycopy(starts, 0, next, 0, numStates);
+		int[] cols = new int[starts[numStates]];
+		double[] vals = new double[starts[numStates]];
+		for (int s = 0; s < numStates; s++) {
+			if (choiceStarts[s] == choiceStarts[s + 1]) {
+				int k = next[s]++;
+				cols[k] = s;
+				vals[k] = 1.0;
+			} else {
+				for (int j = transStarts[choiceStarts[s]]; j < transStarts[choiceStarts[s + 1]]; j++) {
+					int k = next[succs[j]]++;
+					cols[k] = s;
+					vals[k] = probs[j];
+				}
+			}
+		}
+		rowStartsT = starts;
+		colsT = cols;
+		valsT = vals;
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private BoundedAnalysis()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new BoundedAnalysis().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+
+			SparseKernels[] allKernels = new SparseKernels[] {
+					SparseKernels.create(SparseKernels.Backend.SCALAR),
+					SparseKernels.create(SparseKernels.Backend.VECTOR)
+			};
+			if (allKernels[1].getBackend() != SparseKernels.Backend.VECTOR) {
+				System.out.println("Vector API not available (run with --add-modules jdk.incubator.vector); using scalar fallback\n");
+			}
+
+			// Check P=?[F<=10 "end"] for the random walk in DTMCModelGenerator against PRISM
+			DTMCModelGenerator.RandomWalk walkGen = new DTMCModelGenerator.RandomWalk(5, 0.6);
+			ExplicitSparseModel walk = ExplicitSparseModel.build(walkGen);
+			prism.loadModelGenerator(walkGen);
+			System.out.println("P=?[F<=10 \"end\"] (RandomWalk):");
+			System.out.println("PRISM: " + prism.modelCheck("P=?[F<=10 \"end\"]").getResult());
+			for (SparseKernels kernels : allKernels) {
+				double[] soln = new BoundedAnalysis(walk, kernels).boundedReachProbs(walk.getLabelStates(walkGen, "end"), 10, false);
+				System.out.println(kernels.getBackend() + ": " + soln[0]);
+			}
+
+			// Check P=?[F<=5 s=7] for the dice model in ModelCheckFromFiles against PRISM
+			ModulesFile modulesFile = prism.parseModelFile(new File("examples/dice.pm"));
+			prism.loadPRISMModel(modulesFile);
+			ExplicitSparseModel dice = ExplicitSparseModel.build(modulesFile, prism);
+			Expression target = prism.parsePropertiesString(modulesFile, "s=7").getProperty(0);
+			System.out.println("\nP=?[F<=5 s=7] (dice):");
+			System.out.println("PRISM: " + prism.modelCheck("P=?[F<=5 s=7]").getResult());
+			for (SparseKernels kernels : allKernels) {
+				double[] soln = new BoundedAnalysis(dice, kernels).boundedReachProbs(dice.getStatesSatisfying(target), 5, false);
+				System.out.println(kernels.getBackend() + ": " + soln[0]);
+			}
+
+			// Check P=?[F<=10 "done"] and the transient distribution for a DTMC with two modules
+			// (whose commands give separate choices in each state, combined when the model is built)
+			ModulesFile walkersFile = prism.parseModelFile(new File("examples/walkers.pm"));
+			prism.loadPRISMModel(walkersFile);
+			ExplicitSparseModel walkers = ExplicitSparseModel.build(walkersFile, prism);
+			BitSet done = walkers.getStatesSatisfying(prism.parsePropertiesString(walkersFile, "x1=5 & x2=5").getProperty(0));
+			System.out.println("\nP=?[F<=10 \"done\"] (walkers):");
+			double resultPrism = (Double) prism.modelCheck("P=?[F<=10 \"done\"]").getResult();
+			System.out.println("PRISM: " + resultPrism);
+			for (SparseKernels kernels : allKernels) {
+				double[] soln = new BoundedAnalysis(walkers, kernels).boundedReachProbs(done, 10, false);
+				// ("done" is absorbing, so the transient probability of being there after 10 steps is the same)
+				double[] initDist = new double[walkers.getNumStates()];
+				initDist[0] = 1.0;
+				double[] dist = new BoundedAnalysis(walkers, kernels).transientProbs(initDist, 10);
+				double resultTransient = 0.0;
+				for (int s = done.nextSetBit(0); s >= 0; s = done.nextSetBit(s + 1)) {
+					resultTransient += dist[s];
+				}
+				System.out.println(kernels.getBackend() + ": " + soln[0] + " (transient: " + resultTransient + ")");
+				if (Math.abs(soln[0] - resultPrism) > 1e-10 || Math.abs(resultTransient - resultPrism) > 1e-10) {
+					throw new PrismException("Result for walkers model differs from PRISM");
+				}
+			}
+
+			// Compare backends and layouts on larger models (time per multiplication, in ns per transition).
+			// The random walk and grid have rows of 1-3 entries (so only the sliced layout can use vectors);
+			// the random graph has rows of 16 entries (and about 16 on average in the transpose).
+			int k = 200;
+			System.out.println("\nTime per multiplication (ns per transition), " + k + " steps:");
+			for (int n : new int[] { 1000, 100000, 1000000 }) {
+				DTMCModelGenerator.RandomWalk modelGen = new DTMCModelGenerator.RandomWalk(n, 0.6);
+				ExplicitSparseModel model = ExplicitSparseModel.build(modelGen);
+				compareBackends("RandomWalk(" + n + ")", model, model.getLabelStates(modelGen, "end"), allKernels, k);
+			}
+			for (int n : new int[] { 10000, 100000, 1000000 }) {
+				GraphPrecomputation.RandomGraph modelGen = new GraphPrecomputation.RandomGraph(n, 1, 16);
+				ExplicitSparseModel model = ExplicitSparseModel.build(modelGen);
+				compareBackends("RandomGraph(" + n + ", 1, 16)", model, model.getLabelStates(modelGen, "target"), allKernels, k);
+			}
+			for (int n : new int[] { 30, 300, 1000 }) {
+				MDPModelGenerator.GridModel modelGen = new MDPModelGenerator.GridModel(n);
+				ExplicitSparseModel model = ExplicitSparseModel.build(modelGen);
+				compareBackends("GridModel(" + n + ")", model, model.getLabelStates(modelGen, "target"), allKernels, k);
+			}
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (FileNotFoundException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Time bounded reachability (and, for DTMCs, transient analysis) for each backend and layout,
+	 * checking that all results agree with those of the scalar CSR version.
+	 */
+	private static void compareBackends(String name, ExplicitSparseModel model, BitSet target, SparseKernels[] allKernels, int k) throws PrismException
+	{
+		boolean dtmc = model.getModelType() == ModelType.DTMC;
+		double[] initDist = new double[model.getNumStates()];
+		initDist[0] = 1.0;
+		System.out.println(name + ", " + model.getNumStates() + " states, " + model.getNumTransitions() + " transitions:");
+		double[] refBounded = null;
+		double[] refTransient = null;
+		for (boolean sliced : new boolean[] { false, true }) {
+			for (SparseKernels kernels : allKernels) {
+				BoundedAnalysis bounded = new BoundedAnalysis(model, kernels, sliced);
+				double[] solnBounded = bounded.boundedReachProbs(target, k, false);
+				double[] solnTransient = dtmc ? bounded.transientProbs(initDist, k) : null;
+				if (refBounded == null) {
+					refBounded = solnBounded;
+					refTransient = solnTransient;
+				}
+				double diff = maxDiff(refBounded, solnBounded);
+				if (dtmc) {
+					diff = Math.max(diff, maxDiff(refTransient, solnTransient));
+				}
+				if (diff > 1e-10) {
+					throw new PrismException(kernels.getBackend() + " results differ from SCALAR (by " + diff + ")");
+				}
+				double tBounded = Timing.bestTimeNanos(() -> bounded.boundedReachProbs(target, k, false));
+				String line = String.format("  %s, %s: bounded %.2f", kernels.getBackend(), sliced ? "sliced (fill " + String.format("%.2f", bounded.getFillRatio()) + ")" : "CSR", tBounded / k / model.getNumTransitions());
+				if (dtmc) {
+					double tTransient = Timing.bestTimeNanos(() -> bounded.transientProbs(initDist, k));
+					line += String.format(", transient %.2f", tTransient / k / model.getNumTransitions());
+				}
+				System.out.println(line + String.format(" (max diff vs SCALAR CSR %.1e)", diff));
+			}
+		}
+	}
+
+	private static double maxDiff(double[] a, double[] b)
+	{
+		double diff = 0.0;
+		for (int i = 0; i < a.length; i++) {
+			diff = Math.max(diff, Math.abs(a[i] - b[i]));
+		}
+		return diff;
+	}
+}
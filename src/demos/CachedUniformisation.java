@@ -0,0 +1,341 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import explicit.FoxGlynn;
+import parser.Values;
+import parser.ast.Expression;
+import parser.ast.ModulesFile;
+import parser.ast.PropertiesFile;
+import prism.ModelType;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+
+/**
+ * An example class showing transient analysis of a continuous-time Markov chain (CTMC)
+ * for many time points at once, using uniformisation.
+ * 
+ * The CTMC is uniformised once, when the object is created, and the Fox-Glynn
+ * (Poisson) weights for each time point are cached. All requested time points are then
+ * computed in a single pass over the powers of the uniformised matrix, with each
+ * time point accumulating the terms that fall in its Fox-Glynn window.
+ * 
+ * Running the class compares this with one call to {@link prism.Prism#modelCheck} per time point,
+ * for the {@code nacl.sm} model and the first property in {@code nacl.csl}.
+ */
+public class CachedUniformisation
+{
+	// Accuracy for Fox-Glynn weights (as used by PRISM for its default termination epsilon)
+	private static final double FOX_GLYNN_ACCURACY = 1.0e-6 / 8.0;
+
+	// Number of states
+	private int numStates;
+	// Uniformisation rate
+	private double unifRate;
+	// Transpose of uniformised matrix (CSR)
+	private int[] rowStartsT;
+	private int[] colsT;
+	private double[] valsT;
+	// Matrix-vector multiplication kernels
+	private SparseKernels kernels;
+	// Cache of Fox-Glynn weights, indexed by time point
+	private Map<Double, FoxGlynn> foxGlynnCache = new HashMap<>();
+
+	/**
+	 * Uniformise a CTMC, ready for transient analysis.
+	 * @param ctmc The CTMC (transition values are rates)
+	 * @param kernels Matrix-vector multiplication kernels
+	 */
+	public CachedUniformisation(ExplicitSparseModel ctmc, SparseKernels kernels) throws PrismException
+	{
+		if (ctmc.getModelType() != ModelType.CTMC) {
+			throw new PrismException("Uniformisation requires a CTMC");
+		}
+		this.kernels = kernels;
+		numStates = ctmc.getNumStates();
+		int[] choiceStarts = ctmc.getChoiceStarts();
+		int[] transStarts = ctmc.getTransStarts();
+		int[] succs = ctmc.getSuccessors();
+		double[] rates = ctmc.getProbabilities();
+		// Exit rates, ignoring self-loops (which do not affect the CTMC's behaviour)
+		double[] exitRates = new double[numStates];
+		double maxExitRate = 0.0;
+		for (int s = 0; s < numStates; s++) {
+			for (int c = choiceStarts[s]; c < choiceStarts[s + 1]; c++) {
+				for (int j = transStarts[c]; j < transStarts[c + 1]; j++) {
+					if (succs[j] != s) {
+						exitRates[s] += rates[j];
+					}
+				}
+			}
+			maxExitRate = Math.max(maxExitRate, exitRates[s]);
+		}
+		// As in PRISM, uniformise with a rate slightly above the maximum exit rate
+		unifRate = 1.02 * maxExitRate;
+		if (unifRate == 0.0) {
+			unifRate = 1.0;
+		}
+		// Build the transposed uniformised matrix P = I + Q/q,
+		// with one diagonal entry per row plus one entry per non-self-loop transition
+		int[] starts = new int[numStates + 1];
+		for (int s = 0; s < numStates; s++) {
+			starts[s + 1]++;
+			for (int c = choiceStarts[s]; c < choiceStarts[s + 1]; c++) {
+				for (int j = transStarts[c]; j < transStarts[c + 1]; j++) {
+					if (succs[j] != s) {
+						starts[succs[j] + 1]++;
+					}
+				}
+			}
+		}
+		for (int t = 0; t < numStates; t++) {
+			starts[t + 1] += starts[t];
+		}
+		int[] next = Arrays.copyOf(starts, numStates);
+		colsT = new int[starts[numStates]];
+		valsT = new double[starts[numStates]];
+		for (int s = 0; s < numStates; s++) {
+			int k = next[s]++;
+			colsT[k] = s;
+			valsT[k] = 1.0 - exitRates[s] / unifRate;
+			for (int c = choiceStarts[s]; c < choiceStarts[s + 1]; c++) {
+				for (int j = transStarts[c]; j < transStarts[c + 1]; j++) {
+					if (succs[j] != s) {
+						k = next[succs[j]]++;
+						colsT[k] = s;
+						valsT[k] = rates[j] / unifRate;
+					}
+				}
+			}
+		}
+		rowStartsT = starts;
+	}
+
+	public double getUniformisationRate()
+	{
+		return unifRate;
+	}
+
+	/**
+	 * Get the Fox-Glynn weights for time {@code t}, computing them only if not already cached.
+	 */
+	private FoxGlynn getFoxGlynn(double t) throws PrismException
+	{
+		FoxGlynn fg = foxGlynnCache.get(t);
+		if (fg == null) {
+			fg = new FoxGlynn(unifRate * t, 1.0e-300, 1.0e+300, FOX_GLYNN_ACCURACY);
+			if (fg.getRightTruncationPoint() < 0) {
+				throw new PrismException("Overflow in Fox-Glynn computation (time bound too big?)");
+			}
+			foxGlynnCache.put(t, fg);
+		}
+		return fg;
+	}
+
+	/**
+	 * Compute the transient distribution of the CTMC at each of several time points,
+	 * starting from initial distribution {@code initDist}.
+	 * This takes a single pass over the powers of the uniformised matrix, up to the
+	 * largest right truncation point, rather than one pass per time point.
+	 * @param initDist Initial distribution
+	 * @param times Time points (non-negative, in any order)
+	 * @return One distribution for each time point, in the same order as {@code times}
+	 */
+	public double[][] computeTransient(double[] initDist, double[] times) throws PrismException
+	{
+		int numTimes = times.length;
+		double[][] results = new double[numTimes][];
+		int[] left = new int[numTimes];
+		int[] right = new int[numTimes];
+		double[][] weights = new double[numTimes][];
+		int maxRight = -1;
+		for (int i = 0; i < numTimes; i++) {
+			if (times[i] < 0) {
+				throw new PrismException("Negative time point " + times[i]);
+			}
+			results[i] = new double[numStates];
+			if (times[i] == 0.0) {
+				System.arraycopy(initDist, 0, results[i], 0, numStates);
+				right[i] = -1;
+				continue;
+			}
+			FoxGlynn fg = getFoxGlynn(times[i]);
+			left[i] = fg.getLeftTruncationPoint();
+			right[i] = fg.getRightTruncationPoint();
+			// Normalise weights
+			double totalWeight = fg.getTotalWeight();
+			weights[i] = fg.getWeights().clone();
+			for (int k = 0; k < weights[i].length; k++) {
+				weights[i][k] /= totalWeight;
+			}
+			maxRight = Math.max(maxRight, right[i]);
+		}
+		// Sort time points by left truncation point, so that we can track
+		// which of them have a Fox-Glynn window containing the current iteration
+		Integer[] order = new Integer[numTimes];
+		for (int i = 0; i < numTimes; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (i, j) -> Integer.compare(left[i], left[j]));
+		int[] active = new int[numTimes];
+		int numActive = 0;
+		int nextToActivate = 0;
+		double[] dist = initDist.clone();
+		double[] dist2 = new double[numStates];
+		for (int k = 0; k <= maxRight; k++) {
+			// Add time points whose windows start here, drop those that have finished
+			while (nextToActivate < numTimes && left[order[nextToActivate]] <= k) {
+				if (right[order[nextToActivate]] >= k) {
+					active[numActive++] = order[nextToActivate];
+				}
+				nextToActivate++;
+			}
+			int n = 0;
+			for (int a = 0; a < numActive; a++) {
+				int i = active[a];
+				if (right[i] >= k) {
+					double w = weights[i][k - left[i]];
+					double[] result = results[i];
+					for (int s = 0; s < numStates; s++) {
+						result[s] += w * dist[s];
+					}
+					active[n++] = i;
+				}
+			}
+			numActive = n;
+			// Next power of the uniformised matrix
+			if (k < maxRight) {
+				kernels.multiply(rowStartsT, colsT, valsT, dist, dist2, 0, numStates);
+				double[] tmp = dist;
+				dist = dist2;
+				dist2 = tmp;
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private CachedUniformisation()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new CachedUniformisation().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+
+			// Parse and load the model, with N1=N2=10
+			ModulesFile modulesFile = prism.parseModelFile(new File("examples/nacl.sm"));
+			prism.loadPRISMModel(modulesFile);
+			Values vals = new Values();
+			vals.addValue("N1", 10);
+			vals.addValue("N2", 10);
+			modulesFile.setSomeUndefinedConstants(vals);
+			prism.setPRISMModelConstants(vals);
+			PropertiesFile propertiesFile = prism.parsePropertiesFile(modulesFile, new File("examples/nacl.csl"));
+
+			// Time points to check P=? [ true U[T,T] na=i ] at (for i=5)
+			int numTimes = 200;
+			int i = 5;
+			double[] times = new double[numTimes];
+			for (int j = 0; j < numTimes; j++) {
+				times[j] = 0.001 * (j + 1);
+			}
+
+			// One call to modelCheck per time point
+			long start = System.nanoTime();
+			double[] resultsPrism = new double[numTimes];
+			for (int j = 0; j < numTimes; j++) {
+				Values propVals = new Values();
+				propVals.addValue("T", times[j]);
+				propVals.addValue("i", i);
+				propertiesFile.setSomeUndefinedConstants(propVals);
+				resultsPrism[j] = (Double) prism.modelCheck(propertiesFile, propertiesFile.getPropertyObject(0)).getResult();
+			}
+			long timePrism = System.nanoTime() - start;
+
+			// Cached uniformisation, all time points in one pass
+			start = System.nanoTime();
+			ExplicitSparseModel ctmc = ExplicitSparseModel.build(modulesFile, prism);
+			CachedUniformisation unif = new CachedUniformisation(ctmc, SparseKernels.create(SparseKernels.Backend.SCALAR));
+			Expression target = prism.parsePropertiesString(modulesFile, "na=" + i).getProperty(0);
+			BitSet targetStates = ctmc.getStatesSatisfying(target);
+			double[] initDist = new double[ctmc.getNumStates()];
+			initDist[0] = 1.0;
+			double[][] dists = unif.computeTransient(initDist, times);
+			double[] results = new double[numTimes];
+			for (int j = 0; j < numTimes; j++) {
+				for (int s = targetStates.nextSetBit(0); s >= 0; s = targetStates.nextSetBit(s + 1)) {
+					results[j] += dists[j][s];
+				}
+			}
+			long timeCached = System.nanoTime() - start;
+
+			double maxDiff = 0.0;
+			for (int j = 0; j < numTimes; j++) {
+				maxDiff = Math.max(maxDiff, Math.abs(results[j] - resultsPrism[j]));
+			}
+			for (int j = 0; j < numTimes; j += numTimes / 4) {
+				System.out.println(propertiesFile.getPropertyObject(0) + " for T=" + times[j] + ",i=" + i + ": " + resultsPrism[j] + " (PRISM), " + results[j] + " (cached)");
+			}
+			System.out.println("Max difference: " + maxDiff);
+			System.out.println("Time for " + numTimes + " time points: " + timePrism / 1000000 + " ms (PRISM, one modelCheck each), " + timeCached / 1000000 + " ms (cached uniformisation, including model construction)");
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (FileNotFoundException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,608 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import parser.State;
+import parser.Values;
+import parser.ast.DeclarationType;
+import parser.type.Type;
+import prism.ModelGenerator;
+import prism.ModelType;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+import prism.RewardGenerator;
+
+/**
+ * A wrapper around a {@link prism.ModelGenerator} (and {@link prism.RewardGenerator})
+ * which records all labels and rewards for each state the first time it is explored
+ * (i.e., during PRISM's own model construction pass), and then answers later label
+ * and reward queries for that state from the stored values, rather than calling
+ * the underlying generator again. There is no separate exploration of the model.
+ * When a known state is explored again, exploration of the underlying generator is deferred
+ * until transitions are actually requested, so a pass over the states that only looks
+ * at labels or rewards never reaches it.
+ * 
+ * All other methods (including those with default implementations in the interfaces)
+ * are forwarded, so the wrapper behaves like the underlying generator.
+ * The wrapper can also be used with caching disabled, in which case it just forwards all calls.
+ * In either case it counts all calls made to the underlying generator (for states, transitions,
+ * labels and rewards) and, when caching, how many were answered from the stored values.
+ */
+public class CachingModelGenerator implements ModelGenerator<Double>, RewardGenerator<Double>
+{
+	// Underlying generator(s)
+	private ModelGenerator<Double> modelGen;
+	private RewardGenerator<Double> rewardGen;
+	// Whether to record labels/rewards and answer queries from them
+	private boolean cache;
+	// Index of states seen so far (in order of first exploration), if caching
+	private PackedStateIndex packedIndex;
+	private HashMap<State, Integer> stateMap;
+	private int numStates;
+	// Recorded label sets (indexed as for the underlying generator)
+	private BitSet[] labelStates;
+	// Recorded rewards: per state, and per choice (with the start of each state's choices)
+	private int numRewardStructs;
+	private double[][] stateRewards;
+	private int[] choiceStarts;
+	private Object[] actions;
+	private double[][] choiceRewards;
+	private int numChoices;
+
+	// Current state, its index, and whether the underlying generator has explored it
+	private State currentState;
+	private int currentIndex;
+	private boolean explored;
+
+	// Call counts
+	private long numRecordCalls;
+	private long numForwardedCalls;
+	private long numCachedCalls;
+
+	/**
+	 * Create a wrapper for a model generator.
+	 * @param modelGen The model generator (also used for rewards if it is a {@link prism.RewardGenerator})
+	 * @param cache Whether to record labels/rewards and answer queries from them
+	 */
+	@SuppressWarnings("unchecked")
+	public CachingModelGenerator(ModelGenerator<Double> modelGen, boolean cache)
+	{
+		this.modelGen = modelGen;
+		this.rewardGen = modelGen instanceof RewardGenerator ? (RewardGenerator<Double>) modelGen : null;
+		this.cache = cache;
+		if (cache) {
+			try {
+				packedIndex = new PackedStateIndex(modelGen);
+			} catch (PrismException e) {
+				stateMap = new HashMap<>();
+			}
+			int numLabels = modelGen.getLabelNames() == null ? 0 : modelGen.getLabelNames().size();
+			labelStates = new BitSet[numLabels];
+			for (int l = 0; l < numLabels; l++) {
+				labelStates[l] = new BitSet();
+			}
+			numRewardStructs = rewardGen == null || rewardGen.getRewardStructNames() == null ? 0 : rewardGen.getRewardStructNames().size();
+			stateRewards = new double[numRewardStructs][1024];
+			choiceStarts = new int[1024];
+			actions = new Object[1024];
+			choiceRewards = new double[numRewardStructs][1024];
+		}
+	}
+
+	/**
+	 * Get the number of states for which labels and rewards have been recorded.
+	 */
+	public int getNumStates()
+	{
+		return numStates;
+	}
+
+	/**
+	 * Get the number of calls made to the underlying generator to record labels and rewards
+	 * (0 if caching is disabled).
+	 */
+	public long getNumRecordCalls()
+	{
+		return numRecordCalls;
+	}
+
+	/**
+	 * Get the number of calls forwarded to the underlying generator
+	 * (all calls made on behalf of the caller, i.e., excluding those used to record labels and rewards).
+	 */
+	public long getNumForwardedCalls()
+	{
+		return numForwardedCalls;
+	}
+
+	/**
+	 * Get the total number of calls made to the underlying generator.
+	 */
+	public long getNumGeneratorCalls()
+	{
+		return numRecordCalls + numForwardedCalls;
+	}
+
+	/**
+	 * Get the number of calls answered from the recorded values (i.e., generator calls saved).
+	 */
+	public long getNumCachedCalls()
+	{
+		return numCachedCalls;
+	}
+
+	/**
+	 * Look up the index of a state seen so far (-1 if not present).
+	 */
+	private int lookUp(State state) throws PrismException
+	{
+		if (packedIndex != null) {
+			return packedIndex.get(state);
+		} else {
+			Integer s = stateMap.get(state);
+			return s == null ? -1 : s;
+		}
+	}
+
+	/**
+	 * Add a new state to the index, explore it and record all its labels and rewards.
+	 * Returns its index.
+	 */
+	private int record(State state) throws PrismException
+	{
+		int s = numStates++;
+		if (packedIndex != null) {
+			packedIndex.getOrAdd(packedIndex.pack(state));
+		} else {
+			stateMap.put(new State(state), s);
+		}
+		ensureExplored();
+		for (int l = 0; l < labelStates.length; l++) {
+			numRecordCalls++;
+			if (modelGen.isLabelTrue(l)) {
+				labelStates[l].set(s);
+			}
+		}
+		for (int r = 0; r < numRewardStructs; r++) {
+			stateRewards[r] = ensureCapacity(stateRewards[r], s + 1);
+			numRecordCalls++;
+			stateRewards[r][s] = rewardGen.getStateReward(r, state);
+		}
+		choiceStarts = ensureCapacity(choiceStarts, s + 2);
+		choiceStarts[s] = numChoices;
+		if (numRewardStructs > 0) {
+			numRecordCalls++;
+			int n = modelGen.getNumChoices();
+			for (int i = 0; i < n; i++) {
+				if (numChoices >= actions.length) {
+					actions = Arrays.copyOf(actions, 2 * actions.length);
+				}
+				numRecordCalls++;
+				actions[numChoices] = modelGen.getTransitionAction(i, 0);
+				for (int r = 0; r < numRewardStructs; r++) {
+					choiceRewards[r] = ensureCapacity(choiceRewards[r], numChoices + 1);
+					numRecordCalls++;
+					choiceRewards[r][numChoices] = rewardGen.getStateActionReward(r, state, actions[numChoices]);
+				}
+				numChoices++;
+			}
+		}
+		choiceStarts[s + 1] = numChoices;
+		return s;
+	}
+
+	/**
+	 * Make sure the underlying generator has explored the current state.
+	 */
+	private void ensureExplored() throws PrismException
+	{
+		if (!explored) {
+			numForwardedCalls++;
+			modelGen.exploreState(currentState);
+			explored = true;
+		}
+	}
+
+	private static int[] ensureCapacity(int[] array, int size)
+	{
+		return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, 2 * array.length));
+	}
+
+	private static double[] ensureCapacity(double[] array, int size)
+	{
+		return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, 2 * array.length));
+	}
+
+	// Methods for ModelInfo interface (all forwarded)
+
+	@Override
+	public ModelType getModelType()
+	{
+		numForwardedCalls++;
+		return modelGen.getModelType();
+	}
+
+	@Override
+	public Values getConstantValues()
+	{
+		numForwardedCalls++;
+		return modelGen.getConstantValues();
+	}
+
+	@Override
+	public int getNumVars()
+	{
+		numForwardedCalls++;
+		return modelGen.getNumVars();
+	}
+
+	@Override
+	public List<String> getVarNames()
+	{
+		numForwardedCalls++;
+		return modelGen.getVarNames();
+	}
+
+	@Override
+	public int getVarIndex(String name)
+	{
+		numForwardedCalls++;
+		return modelGen.getVarIndex(name);
+	}
+
+	@Override
+	public String getVarName(int i)
+	{
+		numForwardedCalls++;
+		return modelGen.getVarName(i);
+	}
+
+	@Override
+	public List<Type> getVarTypes()
+	{
+		numForwardedCalls++;
+		return modelGen.getVarTypes();
+	}
+
+	@Override
+	public Type getVarType(int i) throws PrismException
+	{
+		numForwardedCalls++;
+		return modelGen.getVarType(i);
+	}
+
+	@Override
+	public DeclarationType getVarDeclarationType(int i) throws PrismException
+	{
+		numForwardedCalls++;
+		return modelGen.getVarDeclarationType(i);
+	}
+
+	@Override
+	public int getNumLabels()
+	{
+		numForwardedCalls++;
+		return modelGen.getNumLabels();
+	}
+
+	@Override
+	public List<String> getLabelNames()
+	{
+		numForwardedCalls++;
+		return modelGen.getLabelNames();
+	}
+
+	@Override
+	public String getLabelName(int i) throws PrismException
+	{
+		numForwardedCalls++;
+		return modelGen.getLabelName(i);
+	}
+
+	@Override
+	public int getLabelIndex(String label)
+	{
+		numForwardedCalls++;
+		return modelGen.getLabelIndex(label);
+	}
+
+	// Methods for ModelGenerator interface
+
+	@Override
+	public boolean hasSingleInitialState() throws PrismException
+	{
+		numForwardedCalls++;
+		return modelGen.hasSingleInitialState();
+	}
+
+	@Override
+	public List<State> getInitialStates() throws PrismException
+	{
+		numForwardedCalls++;
+		return modelGen.getInitialStates();
+	}
+
+	@Override
+	public State getInitialState() throws PrismException
+	{
+		numForwardedCalls++;
+		return modelGen.getInitialState();
+	}
+
+	@Override
+	public void exploreState(State exploreState) throws PrismException
+	{
+		currentState = exploreState;
+		explored = false;
+		if (!cache) {
+			// Not caching: explore now
+			currentIndex = -1;
+			ensureExplored();
+		} else {
+			// First time this state is seen: explore now and record labels/rewards
+			currentIndex = lookUp(exploreState);
+			if (currentIndex == -1) {
+				currentIndex = record(exploreState);
+			}
+		}
+	}
+
+	@Override
+	public int getNumChoices() throws PrismException
+	{
+		ensureExplored();
+		numForwardedCalls++;
+		return modelGen.getNumChoices();
+	}
+
+	@Override
+	public int getNumTransitions(int i) throws PrismException
+	{
+		ensureExplored();
+		numForwardedCalls++;
+		return modelGen.getNumTransitions(i);
+	}
+
+	@Override
+	public Object getChoiceAction(int i) throws PrismException
+	{
+		ensureExplored();
+		numForwardedCalls++;
+		return modelGen.getChoiceAction(i);
+	}
+
+	@Override
+	public String getChoiceActionString(int i) throws PrismException
+	{
+		ensureExplored();
+		numForwardedCalls++;
+		return modelGen.getChoiceActionString(i);
+	}
+
+	@Override
+	public Object getTransitionAction(int i, int offset) throws PrismException
+	{
+		ensureExplored();
+		numForwardedCalls++;
+		return modelGen.getTransitionAction(i, offset);
+	}
+
+	@Override
+	public String getTransitionActionString(int i, int offset) throws PrismException
+	{
+		ensureExplored();
+		numForwardedCalls++;
+		return modelGen.getTransitionActionString(i, offset);
+	}
+
+	@Override
+	public Double getTransitionProbability(int i, int offset) throws PrismException
+	{
+		ensureExplored();
+		numForwardedCalls++;
+		return modelGen.getTransitionProbability(i, offset);
+	}
+
+	@Override
+	public State computeTransitionTarget(int i, int offset) throws PrismException
+	{
+		ensureExplored();
+		numForwardedCalls++;
+		return modelGen.computeTransitionTarget(i, offset);
+	}
+
+	@Override
+	public boolean isLabelTrue(int i) throws PrismException
+	{
+		if (currentIndex != -1) {
+			numCachedCalls++;
+			return labelStates[i].get(currentIndex);
+		}
+		ensureExplored();
+		numForwardedCalls++;
+		return modelGen.isLabelTrue(i);
+	}
+
+	// Methods for RewardGenerator interface
+	// (if the underlying generator is not a RewardGenerator, there are no reward structures)
+
+	@Override
+	public List<String> getRewardStructNames()
+	{
+		if (rewardGen == null) {
+			return Collections.emptyList();
+		}
+		numForwardedCalls++;
+		return rewardGen.getRewardStructNames();
+	}
+
+	@Override
+	public int getNumRewardStructs()
+	{
+		if (rewardGen == null) {
+			return 0;
+		}
+		numForwardedCalls++;
+		return rewardGen.getNumRewardStructs();
+	}
+
+	@Override
+	public int getRewardStructIndex(String name)
+	{
+		if (rewardGen == null) {
+			return -1;
+		}
+		numForwardedCalls++;
+		return rewardGen.getRewardStructIndex(name);
+	}
+
+	@Override
+	public String getRewardStructName(int r)
+	{
+		numForwardedCalls++;
+		return rewardGen.getRewardStructName(r);
+	}
+
+	@Override
+	public boolean rewardStructHasStateRewards(int r)
+	{
+		numForwardedCalls++;
+		return rewardGen.rewardStructHasStateRewards(r);
+	}
+
+	@Override
+	public boolean rewardStructHasTransitionRewards(int r)
+	{
+		numForwardedCalls++;
+		return rewardGen.rewardStructHasTransitionRewards(r);
+	}
+
+	@Override
+	public boolean isRewardLookupSupported(RewardLookup lookup)
+	{
+		// Only lookup by state is wrapped (and cached)
+		if (rewardGen == null || lookup != RewardLookup.BY_STATE) {
+			return false;
+		}
+		numForwardedCalls++;
+		return rewardGen.isRewardLookupSupported(lookup);
+	}
+
+	@Override
+	public Double getStateReward(int r, State state) throws PrismException
+	{
+		int s = cache ? lookUp(state) : -1;
+		if (s != -1) {
+			numCachedCalls++;
+			return stateRewards[r][s];
+		}
+		numForwardedCalls++;
+		return rewardGen.getStateReward(r, state);
+	}
+
+	@Override
+	public Double getStateActionReward(int r, State state, Object action) throws PrismException
+	{
+		// Look up the (first) choice of the state with this action
+		int s = cache ? lookUp(state) : -1;
+		if (s != -1) {
+			for (int c = choiceStarts[s]; c < choiceStarts[s + 1]; c++) {
+				if (action == null ? actions[c] == null : action.equals(actions[c])) {
+					numCachedCalls++;
+					return choiceRewards[r][c];
+				}
+			}
+		}
+		numForwardedCalls++;
+		return rewardGen.getStateActionReward(r, state, action);
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private CachingModelGenerator()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new CachingModelGenerator().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+
+			// The five properties from DTMCModelGenerator, on a larger random walk
+			String[] props = new String[] {
+					"P=?[F \"end\"]",
+					"P=?[F<=10 \"end\"]",
+					"P=?[F \"left\"]",
+					"P=?[F \"right\"]",
+					"R=?[F \"end\"]"
+			};
+			for (boolean cache : new boolean[] { false, true }) {
+				long start = System.nanoTime();
+				CachingModelGenerator modelGen = new CachingModelGenerator(new DTMCModelGenerator.RandomWalk(100000, 0.6), cache);
+				prism.loadModelGenerator(modelGen);
+				System.out.println(cache ? "Labels/rewards cached with model:" : "Labels/rewards from generator:");
+				for (String prop : props) {
+					System.out.println(prop + ": " + prism.modelCheck(prop).getResult());
+				}
+				long time = System.nanoTime() - start;
+				System.out.println("States recorded: " + modelGen.getNumStates());
+				System.out.println("Generator calls (total): " + modelGen.getNumGeneratorCalls());
+				System.out.println("Generator calls to record labels/rewards: " + modelGen.getNumRecordCalls());
+				System.out.println("Generator calls forwarded: " + modelGen.getNumForwardedCalls());
+				System.out.println("Generator calls saved: " + modelGen.getNumCachedCalls());
+				System.out.println("Total time: " + (time / 1000000) + " ms");
+			}
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
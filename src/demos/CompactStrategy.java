@@ -0,0 +1,507 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+import parser.State;
+import prism.ModelInfo;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+
+/**
+ * A compact representation of a memoryless deterministic strategy (adversary) for an MDP,
+ * stored as an {@code int[]} table giving the choice (index within the state) taken in each state,
+ * with lookup by state index in constant time. Optionally, a {@link PackedStateIndex} is kept too,
+ * allowing lookup by {@code State} (also constant time, in expectation).
+ * 
+ * Strategies can be exported to (and imported from) a binary file via memory mapping.
+ * The file contains a small header, the choice table (using 1, 2 or 4 bytes per state,
+ * whichever is enough), and, if present, the packed encodings of the states,
+ * from which the state index is rebuilt on import.
+ * 
+ * Running the class compares this with PRISM's textual adversary export for {@code MDPModelGenerator}.
+ */
+public class CompactStrategy
+{
+	// File format: magic number and version
+	private static final int MAGIC = 0x50535452;
+	private static final int VERSION = 1;
+	// Size of file header (magic, version, number of states, bytes per choice, bits per state)
+	private static final int HEADER_BYTES = 20;
+
+	// Choice (index within the state) for each state (-1 if undefined)
+	private int[] choices;
+	// Optional index from (packed) states to state indices
+	private PackedStateIndex stateIndex;
+
+	/**
+	 * Create a strategy from a choice table (which is stored, not copied).
+	 * @param choices Choice (index within the state) for each state (-1 if undefined)
+	 */
+	public CompactStrategy(int[] choices)
+	{
+		this.choices = choices;
+	}
+
+	/**
+	 * Compute an optimal strategy for maximum reachability probabilities in an MDP
+	 * (using value iteration, with a precomputation of the states with maximum probability 0).
+	 * Amongst the optimal choices in each state, one which makes progress towards
+	 * {@code target} is picked (just taking any maximising choice may never reach it).
+	 * @param model The MDP
+	 * @param target Target states
+	 * @param termCrit Termination criterion (absolute) for value iteration
+	 * @param soln Array to store the maximum probabilities in (may be null)
+	 */
+	public static CompactStrategy computeMaxReach(ExplicitSparseModel model, BitSet target, double termCrit, double[] soln)
+	{
+		int numStates = model.getNumStates();
+		int[] choiceStarts = model.getChoiceStarts();
+		BitSet no = new GraphPrecomputation(GraphPrecomputation.Mode.SEQUENTIAL).prob0(model, target);
+		// Value iteration
+		SparseKernels kernels = SparseKernels.create(SparseKernels.Backend.SCALAR);
+		double[] choiceVals = new double[model.getNumChoices()];
+		if (soln == null) {
+			soln = new double[numStates];
+		}
+		Arrays.fill(soln, 0.0);
+		for (int s = target.nextSetBit(0); s >= 0; s = target.nextSetBit(s + 1)) {
+			soln[s] = 1.0;
+		}
+		boolean done = false;
+		while (!done) {
+			kernels.multiply(model.getTransStarts(), model.getSuccessors(), model.getProbabilities(), soln, choiceVals, 0, model.getNumChoices());
+			done = true;
+			for (int s = 0; s < numStates; s++) {
+				if (target.get(s) || no.get(s) || choiceStarts[s] == choiceStarts[s + 1]) {
+					continue;
+				}
+				double v = choiceVals[choiceStarts[s]];
+				for (int c = choiceStarts[s] + 1; c < choiceStarts[s + 1]; c++) {
+					v = Math.max(v, choiceVals[c]);
+				}
+				if (Math.abs(v - soln[s]) > termCrit) {
+					done = false;
+				}
+				soln[s] = v;
+			}
+		}
+		kernels.multiply(model.getTransStarts(), model.getSuccessors(), model.getProbabilities(), soln, choiceVals, 0, model.getNumChoices());
+		// Pick choices, working backwards from the target (via the reverse index):
+		// a state is assigned an optimal choice that has a successor which has already been assigned
+		int[] choices = new int[numStates];
+		Arrays.fill(choices, -1);
+		model.buildReverseIndex();
+		int[] predStarts = model.getPredStarts();
+		int[] predStates = model.getPredStates();
+		int[] predChoices = model.getPredChoices();
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		for (int s = 0; s < numStates; s++) {
+			if (target.get(s) || no.get(s)) {
+				// Any choice will do
+				choices[s] = choiceStarts[s] == choiceStarts[s + 1] ? -1 : 0;
+				if (target.get(s)) {
+					queue.add(s);
+				}
+			}
+		}
+		double tol = 10 * termCrit;
+		while (!queue.isEmpty()) {
+			int t = queue.poll();
+			for (int j = predStarts[t]; j < predStarts[t + 1]; j++) {
+				int s = predStates[j];
+				int c = predChoices[j];
+				if (choices[s] == -1 && choiceVals[c] >= soln[s] - tol && !no.get(s)) {
+					choices[s] = c - choiceStarts[s];
+					queue.add(s);
+				}
+			}
+		}
+		// Any remaining states (only possible due to numerical error): just maximise
+		for (int s = 0; s < numStates; s++) {
+			if (choices[s] == -1 && choiceStarts[s] < choiceStarts[s + 1]) {
+				int best = choiceStarts[s];
+				for (int c = best + 1; c < choiceStarts[s + 1]; c++) {
+					if (choiceVals[c] > choiceVals[best]) {
+						best = c;
+					}
+				}
+				choices[s] = best - choiceStarts[s];
+			}
+		}
+		return new CompactStrategy(choices);
+	}
+
+	/**
+	 * Compute the probabilities of reaching {@code target} in the DTMC induced by this strategy on an MDP
+	 * (by Gauss-Seidel iteration, from below). This can be used to check the strategy against
+	 * the maximum probabilities that it was computed from.
+	 * @param model The MDP
+	 * @param target Target states
+	 * @param termCrit Termination criterion (absolute)
+	 */
+	public double[] computeReachProbs(ExplicitSparseModel model, BitSet target, double termCrit)
+	{
+		int numStates = model.getNumStates();
+		int[] choiceStarts = model.getChoiceStarts();
+		int[] transStarts = model.getTransStarts();
+		int[] succs = model.getSuccessors();
+		double[] probs = model.getProbabilities();
+		double[] soln = new double[numStates];
+		for (int s = target.nextSetBit(0); s >= 0; s = target.nextSetBit(s + 1)) {
+			soln[s] = 1.0;
+		}
+		boolean done = false;
+		while (!done) {
+			done = true;
+			for (int s = 0; s < numStates; s++) {
+				if (target.get(s) || choices[s] == -1) {
+					continue;
+				}
+				int c = choiceStarts[s] + choices[s];
+				double v = 0.0;
+				for (int j = transStarts[c]; j < transStarts[c + 1]; j++) {
+					v += probs[j] * soln[succs[j]];
+				}
+				if (Math.abs(v - soln[s]) > termCrit) {
+					done = false;
+				}
+				soln[s] = v;
+			}
+		}
+		return soln;
+	}
+
+	/**
+	 * Build an index allowing lookup by {@code State}.
+	 * @param modelInfo Model info (for the variable ranges used to pack states)
+	 * @param states The states, in the same order as the choice table
+	 */
+	public void buildStateIndex(ModelInfo modelInfo, List<State> states) throws PrismException
+	{
+		if (states.size() != choices.length) {
+			throw new PrismException("Number of states does not match strategy");
+		}
+		stateIndex = new PackedStateIndex(modelInfo);
+		for (State state : states) {
+			stateIndex.getOrAdd(stateIndex.pack(state));
+		}
+	}
+
+	/**
+	 * Get the number of states.
+	 */
+	public int getNumStates()
+	{
+		return choices.length;
+	}
+
+	/**
+	 * Get the choice table (choice index within the state, or -1 if undefined, for each state).
+	 */
+	public int[] getChoices()
+	{
+		return choices;
+	}
+
+	/**
+	 * Get the choice (index within the state) taken in the {@code s}th state (-1 if undefined).
+	 */
+	public int getChoice(int s)
+	{
+		return choices[s];
+	}
+
+	/**
+	 * Get the choice (index within the state) taken in a state (-1 if undefined or unknown).
+	 * This needs a state index (see {@link #buildStateIndex(ModelInfo, List)}).
+	 */
+	public int getChoice(State state) throws PrismException
+	{
+		if (stateIndex == null) {
+			throw new PrismException("No state index for strategy");
+		}
+		int s = stateIndex.get(state);
+		return s == -1 ? -1 : choices[s];
+	}
+
+	/**
+	 * Export the strategy to a binary file (including the packed states, if there is a state index).
+	 */
+	public void exportToFile(File file) throws PrismException
+	{
+		int numStates = choices.length;
+		int max = 0;
+		for (int s = 0; s < numStates; s++) {
+			max = Math.max(max, choices[s]);
+		}
+		int choiceBytes = max < Byte.MAX_VALUE ? 1 : max < Short.MAX_VALUE ? 2 : 4;
+		long keysStart = align(HEADER_BYTES + (long) numStates * choiceBytes);
+		long size = stateIndex == null ? keysStart : keysStart + 8L * numStates;
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+			raf.setLength(size);
+			MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buf.putInt(MAGIC).putInt(VERSION).putInt(numStates).putInt(choiceBytes);
+			buf.putInt(stateIndex == null ? -1 : stateIndex.getNumBits());
+			for (int s = 0; s < numStates; s++) {
+				switch (choiceBytes) {
+				case 1:
+					buf.put((byte) choices[s]);
+					break;
+				case 2:
+					buf.putShort((short) choices[s]);
+					break;
+				default:
+					buf.putInt(choices[s]);
+				}
+			}
+			if (stateIndex != null) {
+				// Keys are stored in the order they were added, i.e., state order
+				buf.position((int) keysStart);
+				long[] keys = stateIndex.getKeysInOrder();
+				for (int s = 0; s < numStates; s++) {
+					buf.putLong(keys[s]);
+				}
+			}
+			buf.force();
+		} catch (IOException e) {
+			throw new PrismException("Could not export strategy to \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Import a strategy from a binary file (as written by {@link #exportToFile(File)}).
+	 * If the file contains packed states and {@code modelInfo} is non-null, the state index is rebuilt.
+	 * @param file The file
+	 * @param modelInfo Model info (for the variable ranges used to pack states; may be null)
+	 */
+	public static CompactStrategy importFromFile(File file, ModelInfo modelInfo) throws PrismException
+	{
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new PrismException("Strategy file \"" + file + "\" is too large");
+			}
+			MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (channel.size() < HEADER_BYTES || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+				throw new PrismException("\"" + file + "\" is not a strategy file");
+			}
+			// Check the header against the file size before reading anything else
+			int numStates = buf.getInt();
+			int choiceBytes = buf.getInt();
+			int numBits = buf.getInt();
+			if (numStates < 0 || (choiceBytes != 1 && choiceBytes != 2 && choiceBytes != 4) || numBits < -1 || numBits > 64) {
+				throw new PrismException("Strategy file \"" + file + "\" has an invalid header");
+			}
+			long keysStart = align(HEADER_BYTES + (long) numStates * choiceBytes);
+			long size = numBits == -1 ? keysStart : keysStart + 8L * numStates;
+			if (channel.size() < size) {
+				throw new PrismException("Strategy file \"" + file + "\" is truncated (" + channel.size() + " bytes, expected " + size + ")");
+			}
+			int[] choices = new int[numStates];
+			for (int s = 0; s < numStates; s++) {
+				switch (choiceBytes) {
+				case 1:
+					choices[s] = buf.get();
+					break;
+				case 2:
+					choices[s] = buf.getShort();
+					break;
+				default:
+					choices[s] = buf.getInt();
+				}
+				if (choices[s] < -1) {
+					throw new PrismException("Strategy file \"" + file + "\" has an invalid choice for state " + s);
+				}
+			}
+			CompactStrategy strat = new CompactStrategy(choices);
+			if (numBits != -1 && modelInfo != null) {
+				strat.stateIndex = new PackedStateIndex(modelInfo);
+				if (strat.stateIndex.getNumBits() != numBits) {
+					throw new PrismException("State encoding in \"" + file + "\" does not match model");
+				}
+				// Keys must fit in the encoding, and be distinct (so that the ith key gets index i)
+				buf.position((int) keysStart);
+				for (int s = 0; s < numStates; s++) {
+					long key = buf.getLong();
+					if ((numBits < 64 && key >>> numBits != 0) || strat.stateIndex.getOrAdd(key) != s) {
+						throw new PrismException("Strategy file \"" + file + "\" has an invalid state encoding for state " + s);
+					}
+				}
+			}
+			return strat;
+		} catch (FileNotFoundException e) {
+			throw new PrismException("File \"" + file + "\" not found");
+		} catch (IOException e) {
+			throw new PrismException("Could not import strategy from \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	private static long align(long offset)
+	{
+		return (offset + 7) & ~7L;
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private CompactStrategy()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new CompactStrategy().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+
+			// Grid models (with lower failure probabilities, so that the target remains reachable on larger grids)
+			for (int n : new int[] { 4, 100, 300 }) {
+				System.out.println("GridModel(" + n + "):");
+				MDPModelGenerator.GridModel modelGen = new MDPModelGenerator.GridModel(n, 0.05);
+				ExplicitSparseModel model = ExplicitSparseModel.build(modelGen, true, true);
+				int numStates = model.getNumStates();
+
+				// Compute a strategy for Pmax=?[F "target"] (and check the result against PRISM)
+				long start = System.nanoTime();
+				double[] soln = new double[numStates];
+				CompactStrategy strat = computeMaxReach(model, model.getLabelStates("target"), 1e-10, soln);
+				strat.buildStateIndex(modelGen, model.getStates());
+				long timeCompute = System.nanoTime() - start;
+				System.out.println("Pmax=?[F \"target\"]: " + soln[0] + " (strategy computed in " + timeCompute / 1000000 + " ms)");
+				prism.loadModelGenerator(modelGen);
+				System.out.println("PRISM: " + prism.modelCheck("Pmax=?[F \"target\"]").getResult());
+
+				// Check the strategy: reachability in the induced DTMC should match Pmax
+				double[] induced = strat.computeReachProbs(model, model.getLabelStates("target"), 1e-10);
+				double maxDiff = 0.0;
+				for (int s = 0; s < numStates; s++) {
+					maxDiff = Math.max(maxDiff, Math.abs(induced[s] - soln[s]));
+				}
+				System.out.println("Induced DTMC: " + induced[0] + " (max difference from Pmax over all states: " + maxDiff + ")");
+
+				// PRISM's textual adversary export (as in MDPModelGenerator),
+				// timed as the difference between model checking with and without export ...
+				start = System.nanoTime();
+				prism.modelCheck("Pmax=?[F \"target\"]");
+				long timeCheck = System.nanoTime() - start;
+				prism.setExportAdv(Prism.EXPORT_ADV_MDP);
+				prism.setExportAdvFilename("adv.tra");
+				start = System.nanoTime();
+				prism.modelCheck("Pmax=?[F \"target\"]");
+				long timeCheckText = System.nanoTime() - start;
+				prism.setExportAdv(Prism.EXPORT_ADV_NONE);
+				File advFile = new File("adv.tra");
+				System.out.println("Text export: " + Math.max(0, timeCheckText - timeCheck) / 1000000 + " ms (model checking " + timeCheckText / 1000000 + " ms with export, " + timeCheck / 1000000 + " ms without), " + advFile.length() + " bytes");
+
+				// ... versus binary export/import
+				File stratFile = new File("adv.strat");
+				start = System.nanoTime();
+				strat.exportToFile(stratFile);
+				long timeExport = System.nanoTime() - start;
+				start = System.nanoTime();
+				CompactStrategy strat2 = importFromFile(stratFile, modelGen);
+				long timeImport = System.nanoTime() - start;
+				boolean same = Arrays.equals(strat.getChoices(), strat2.getChoices());
+				System.out.println("Binary export: " + timeExport / 1000000 + " ms, import: " + timeImport / 1000000 + " ms, " + stratFile.length() + " bytes" + (same ? "" : " (MISMATCH)"));
+
+				// Lookup throughput: by index, by State (packed index) and by State (HashMap)
+				State[] lookups = new State[numStates];
+				for (int s = 0; s < numStates; s++) {
+					lookups[s] = new State(model.getStates().get(s));
+				}
+				HashMap<State, Integer> map = new HashMap<>();
+				for (int s = 0; s < numStates; s++) {
+					map.put(model.getStates().get(s), strat.getChoice(s));
+				}
+				int reps = Math.max(1, 10000000 / numStates);
+				long sum = 0;
+				start = System.nanoTime();
+				for (int r = 0; r < reps; r++) {
+					for (int s = 0; s < numStates; s++) {
+						sum += strat2.getChoice(s);
+					}
+				}
+				long timeIndex = System.nanoTime() - start;
+				start = System.nanoTime();
+				for (int r = 0; r < reps; r++) {
+					for (int s = 0; s < numStates; s++) {
+						sum -= strat2.getChoice(lookups[s]);
+					}
+				}
+				long timePacked = System.nanoTime() - start;
+				start = System.nanoTime();
+				for (int r = 0; r < reps; r++) {
+					for (int s = 0; s < numStates; s++) {
+						sum += map.get(lookups[s]);
+					}
+				}
+				long timeMap = System.nanoTime() - start;
+				long numLookups = (long) reps * numStates;
+				System.out.printf("Lookups (millions/sec): by index %.1f, by State (packed) %.1f, by State (HashMap) %.1f%s%n", numLookups / (timeIndex / 1000.0), numLookups / (timePacked / 1000.0), numLookups / (timeMap / 1000.0), sum == (long) reps * sumChoices(strat) ? "" : " (MISMATCH)");
+			}
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	private static long sumChoices(CompactStrategy strat)
+	{
+		long sum = 0;
+		for (int choice : strat.getChoices()) {
+			sum += choice;
+		}
+		return sum;
+	}
+}
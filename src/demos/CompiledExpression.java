@@ -0,0 +1,448 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import parser.State;
+import parser.Values;
+import parser.ast.Expression;
+import parser.ast.ExpressionBinaryOp;
+import parser.ast.ExpressionITE;
+import parser.ast.ExpressionLiteral;
+import parser.ast.ExpressionUnaryOp;
+import parser.ast.ExpressionVar;
+import parser.ast.ModulesFile;
+import parser.type.Type;
+import parser.type.TypeBool;
+import parser.type.TypeDouble;
+import parser.type.TypeInt;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+import simulator.SimulatorEngine;
+
+/**
+ * An example class showing how to compile a PRISM {@link parser.ast.Expression}
+ * into a tree of primitive-typed closures, which can then be evaluated repeatedly
+ * (e.g. for a target in a simulation loop, or a label over all states of a model)
+ * without interpreting the syntax tree or boxing values.
+ * 
+ * States are passed to compiled expressions as an {@code int[]} of variable values,
+ * indexed in the same way as the model's variables (booleans are stored as 0/1),
+ * and variables are bound to these indices at compile time.
+ * Supported expressions are literals, (integer/boolean) variables, the usual unary and binary
+ * operators and if-then-else; anything else causes a {@link PrismException}
+ * when compiling, in which case the expression should just be evaluated as normal.
+ * 
+ * Running the class compares the per-step cost of evaluating a target expression
+ * in a simulation loop for {@code nacl.sm}, before and after compilation.
+ */
+public class CompiledExpression
+{
+	/**
+	 * A compiled boolean-valued expression
+	 */
+	public interface BooleanFunction
+	{
+		boolean evaluate(int[] vals);
+	}
+
+	/**
+	 * A compiled integer-valued expression
+	 */
+	public interface IntFunction
+	{
+		int evaluate(int[] vals);
+	}
+
+	/**
+	 * A compiled double-valued expression
+	 */
+	public interface DoubleFunction
+	{
+		double evaluate(int[] vals);
+	}
+
+	/**
+	 * Compile a boolean-valued expression.
+	 */
+	public static BooleanFunction compileBoolean(Expression expr) throws PrismException
+	{
+		if (expr instanceof ExpressionLiteral) {
+			boolean b = ((Boolean) ((ExpressionLiteral) expr).getValue()).booleanValue();
+			return vals -> b;
+		}
+		if (expr instanceof ExpressionVar) {
+			int i = varIndex((ExpressionVar) expr, TypeBool.class);
+			return vals -> vals[i] != 0;
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp exprUnary = (ExpressionUnaryOp) expr;
+			BooleanFunction op = compileBoolean(exprUnary.getOperand());
+			switch (exprUnary.getOperator()) {
+			case ExpressionUnaryOp.NOT:
+				return vals -> !op.evaluate(vals);
+			case ExpressionUnaryOp.PARENTH:
+				return op;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			return compileITE((ExpressionITE) expr, CompiledExpression::compileBoolean, (c, a, b) -> vals -> c.evaluate(vals) ? a.evaluate(vals) : b.evaluate(vals));
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			ExpressionBinaryOp exprBinary = (ExpressionBinaryOp) expr;
+			Expression e1 = exprBinary.getOperand1();
+			Expression e2 = exprBinary.getOperand2();
+			switch (exprBinary.getOperator()) {
+			case ExpressionBinaryOp.AND: {
+				BooleanFunction op1 = compileBoolean(e1), op2 = compileBoolean(e2);
+				return vals -> op1.evaluate(vals) && op2.evaluate(vals);
+			}
+			case ExpressionBinaryOp.OR: {
+				BooleanFunction op1 = compileBoolean(e1), op2 = compileBoolean(e2);
+				return vals -> op1.evaluate(vals) || op2.evaluate(vals);
+			}
+			case ExpressionBinaryOp.IMPLIES: {
+				BooleanFunction op1 = compileBoolean(e1), op2 = compileBoolean(e2);
+				return vals -> !op1.evaluate(vals) || op2.evaluate(vals);
+			}
+			case ExpressionBinaryOp.IFF: {
+				BooleanFunction op1 = compileBoolean(e1), op2 = compileBoolean(e2);
+				return vals -> op1.evaluate(vals) == op2.evaluate(vals);
+			}
+			case ExpressionBinaryOp.EQ:
+			case ExpressionBinaryOp.NE: {
+				boolean eq = exprBinary.getOperator() == ExpressionBinaryOp.EQ;
+				if (e1.getType() instanceof TypeBool && e2.getType() instanceof TypeBool) {
+					BooleanFunction op1 = compileBoolean(e1), op2 = compileBoolean(e2);
+					return vals -> (op1.evaluate(vals) == op2.evaluate(vals)) == eq;
+				}
+				if (isInt(e1) && isInt(e2)) {
+					IntFunction op1 = compileInt(e1), op2 = compileInt(e2);
+					return vals -> (op1.evaluate(vals) == op2.evaluate(vals)) == eq;
+				}
+				DoubleFunction op1 = compileDouble(e1), op2 = compileDouble(e2);
+				return vals -> (op1.evaluate(vals) == op2.evaluate(vals)) == eq;
+			}
+			case ExpressionBinaryOp.GT:
+			case ExpressionBinaryOp.GE:
+			case ExpressionBinaryOp.LT:
+			case ExpressionBinaryOp.LE: {
+				int op = exprBinary.getOperator();
+				if (isInt(e1) && isInt(e2)) {
+					IntFunction op1 = compileInt(e1), op2 = compileInt(e2);
+					switch (op) {
+					case ExpressionBinaryOp.GT:
+						return vals -> op1.evaluate(vals) > op2.evaluate(vals);
+					case ExpressionBinaryOp.GE:
+						return vals -> op1.evaluate(vals) >= op2.evaluate(vals);
+					case ExpressionBinaryOp.LT:
+						return vals -> op1.evaluate(vals) < op2.evaluate(vals);
+					default:
+						return vals -> op1.evaluate(vals) <= op2.evaluate(vals);
+					}
+				}
+				DoubleFunction op1 = compileDouble(e1), op2 = compileDouble(e2);
+				switch (op) {
+				case ExpressionBinaryOp.GT:
+					return vals -> op1.evaluate(vals) > op2.evaluate(vals);
+				case ExpressionBinaryOp.GE:
+					return vals -> op1.evaluate(vals) >= op2.evaluate(vals);
+				case ExpressionBinaryOp.LT:
+					return vals -> op1.evaluate(vals) < op2.evaluate(vals);
+				default:
+					return vals -> op1.evaluate(vals) <= op2.evaluate(vals);
+				}
+			}
+			}
+		}
+		throw new PrismException("Cannot compile boolean expression " + expr);
+	}
+
+	/**
+	 * Compile an integer-valued expression.
+	 */
+	public static IntFunction compileInt(Expression expr) throws PrismException
+	{
+		if (expr instanceof ExpressionLiteral) {
+			int i = ((Integer) ((ExpressionLiteral) expr).getValue()).intValue();
+			return vals -> i;
+		}
+		if (expr instanceof ExpressionVar) {
+			int i = varIndex((ExpressionVar) expr, TypeInt.class);
+			return vals -> vals[i];
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp exprUnary = (ExpressionUnaryOp) expr;
+			IntFunction op = compileInt(exprUnary.getOperand());
+			switch (exprUnary.getOperator()) {
+			case ExpressionUnaryOp.MINUS:
+				return vals -> -op.evaluate(vals);
+			case ExpressionUnaryOp.PARENTH:
+				return op;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			return compileITE((ExpressionITE) expr, CompiledExpression::compileInt, (c, a, b) -> vals -> c.evaluate(vals) ? a.evaluate(vals) : b.evaluate(vals));
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			ExpressionBinaryOp exprBinary = (ExpressionBinaryOp) expr;
+			IntFunction op1 = compileInt(exprBinary.getOperand1());
+			IntFunction op2 = compileInt(exprBinary.getOperand2());
+			switch (exprBinary.getOperator()) {
+			case ExpressionBinaryOp.PLUS:
+				return vals -> op1.evaluate(vals) + op2.evaluate(vals);
+			case ExpressionBinaryOp.MINUS:
+				return vals -> op1.evaluate(vals) - op2.evaluate(vals);
+			case ExpressionBinaryOp.TIMES:
+				return vals -> op1.evaluate(vals) * op2.evaluate(vals);
+			}
+		}
+		throw new PrismException("Cannot compile integer expression " + expr);
+	}
+
+	/**
+	 * Compile a double-valued (or integer-valued, then converted) expression.
+	 */
+	public static DoubleFunction compileDouble(Expression expr) throws PrismException
+	{
+		if (isInt(expr)) {
+			IntFunction f = compileInt(expr);
+			return vals -> f.evaluate(vals);
+		}
+		if (expr instanceof ExpressionLiteral) {
+			double d = ((Number) ((ExpressionLiteral) expr).getValue()).doubleValue();
+			return vals -> d;
+		}
+		if (expr instanceof ExpressionUnaryOp) {
+			ExpressionUnaryOp exprUnary = (ExpressionUnaryOp) expr;
+			DoubleFunction op = compileDouble(exprUnary.getOperand());
+			switch (exprUnary.getOperator()) {
+			case ExpressionUnaryOp.MINUS:
+				return vals -> -op.evaluate(vals);
+			case ExpressionUnaryOp.PARENTH:
+				return op;
+			}
+		}
+		if (expr instanceof ExpressionITE) {
+			return compileITE((ExpressionITE) expr, CompiledExpression::compileDouble, (c, a, b) -> vals -> c.evaluate(vals) ? a.evaluate(vals) : b.evaluate(vals));
+		}
+		if (expr instanceof ExpressionBinaryOp) {
+			ExpressionBinaryOp exprBinary = (ExpressionBinaryOp) expr;
+			DoubleFunction op1 = compileDouble(exprBinary.getOperand1());
+			DoubleFunction op2 = compileDouble(exprBinary.getOperand2());
+			switch (exprBinary.getOperator()) {
+			case ExpressionBinaryOp.PLUS:
+				return vals -> op1.evaluate(vals) + op2.evaluate(vals);
+			case ExpressionBinaryOp.MINUS:
+				return vals -> op1.evaluate(vals) - op2.evaluate(vals);
+			case ExpressionBinaryOp.TIMES:
+				return vals -> op1.evaluate(vals) * op2.evaluate(vals);
+			case ExpressionBinaryOp.DIVIDE:
+				return vals -> op1.evaluate(vals) / op2.evaluate(vals);
+			}
+		}
+		throw new PrismException("Cannot compile double expression " + expr);
+	}
+
+	/**
+	 * Encode the variable values of a state as an {@code int[]}, ready to pass to a compiled expression.
+	 * @param state The state
+	 * @param vals Array to store values in (of size at least the number of variables)
+	 * @return {@code vals}, for convenience 
+	 */
+	public static int[] encode(State state, int[] vals) throws PrismException
+	{
+		Object[] varValues = state.varValues;
+		for (int i = 0; i < varValues.length; i++) {
+			Object v = varValues[i];
+			if (v instanceof Integer) {
+				vals[i] = ((Integer) v).intValue();
+			} else if (v instanceof Boolean) {
+				vals[i] = ((Boolean) v).booleanValue() ? 1 : 0;
+			} else {
+				throw new PrismException("Cannot encode value " + v + " of variable " + i);
+			}
+		}
+		return vals;
+	}
+
+	// Helpers
+
+	/**
+	 * Functional interface for compiling subexpressions
+	 */
+	private interface Compiler<F>
+	{
+		F compile(Expression expr) throws PrismException;
+	}
+
+	/**
+	 * Functional interface for building an if-then-else from compiled subexpressions
+	 */
+	private interface ITEBuilder<F>
+	{
+		F build(BooleanFunction cond, F then, F otherwise);
+	}
+
+	private static <F> F compileITE(ExpressionITE expr, Compiler<F> compiler, ITEBuilder<F> builder) throws PrismException
+	{
+		return builder.build(compileBoolean(expr.getOperand1()), compiler.compile(expr.getOperand2()), compiler.compile(expr.getOperand3()));
+	}
+
+	private static boolean isInt(Expression expr)
+	{
+		return expr.getType() instanceof TypeInt;
+	}
+
+	private static int varIndex(ExpressionVar exprVar, Class<? extends Type> type) throws PrismException
+	{
+		if (!type.isInstance(exprVar.getType())) {
+			throw new PrismException("Cannot compile variable " + exprVar.getName() + " of type " + exprVar.getType());
+		}
+		if (exprVar.getIndex() < 0) {
+			throw new PrismException("Variable " + exprVar.getName() + " has no index");
+		}
+		return exprVar.getIndex();
+	}
+
+	public static void main(String[] args)
+	{
+		new CompiledExpression().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+
+			// Parse and load a PRISM model from a file, as in SimulateModel
+			ModulesFile modulesFile = prism.parseModelFile(new File("examples/nacl.sm"));
+			prism.loadPRISMModel(modulesFile);
+			Values vals = new Values();
+			vals.addValue("N1", 10);
+			vals.addValue("N2", 10);
+			modulesFile.setSomeUndefinedConstants(vals);
+			prism.setPRISMModelConstants(vals);
+			prism.loadModelIntoSimulator();
+			SimulatorEngine sim = prism.getSimulator();
+
+			// A target expression (interpreted) and its compiled version
+			Expression target = prism.parsePropertiesString(modulesFile, "na=2").getProperty(0);
+			BooleanFunction targetCompiled = compileBoolean(target);
+			System.out.println("Target: " + target);
+
+			// Record a long path, to time evaluation on its states
+			// (copying each state, since the on-the-fly path overwrites its current state in place)
+			int numSteps = 1000000;
+			List<State> states = new ArrayList<>(numSteps);
+			sim.createNewOnTheFlyPath();
+			sim.initialisePath(null);
+			for (int i = 0; i < numSteps; i++) {
+				sim.automaticTransition();
+				states.add(new State(sim.getCurrentState()));
+			}
+			int[] buffer = new int[states.get(0).varValues.length];
+			for (int rep = 0; rep < 3; rep++) {
+				// Interpreted
+				long start = System.nanoTime();
+				int count = 0;
+				for (State s : states) {
+					if (target.evaluateBoolean(s)) {
+						count++;
+					}
+				}
+				long timeInterpreted = System.nanoTime() - start;
+				// Compiled (including encoding of each state)
+				start = System.nanoTime();
+				int countCompiled = 0;
+				for (State s : states) {
+					if (targetCompiled.evaluate(encode(s, buffer))) {
+						countCompiled++;
+					}
+				}
+				long timeCompiled = System.nanoTime() - start;
+				System.out.printf("Evaluation per step: %.1f ns (interpreted), %.1f ns (compiled), %d/%d steps satisfy target%n", (double) timeInterpreted / numSteps, (double) timeCompiled / numSteps, count, countCompiled);
+			}
+
+			// Simulation loop, stopping at the target, with and without compilation
+			int numPaths = 10000;
+			for (boolean compiled : new boolean[] { false, true }) {
+				long start = System.nanoTime();
+				long steps = 0;
+				for (int i = 0; i < numPaths; i++) {
+					sim.initialisePath(null);
+					if (compiled) {
+						while (!targetCompiled.evaluate(encode(sim.getCurrentState(), buffer))) {
+							sim.automaticTransition();
+							steps++;
+						}
+					} else {
+						while (!target.evaluateBoolean(sim.getCurrentState())) {
+							sim.automaticTransition();
+							steps++;
+						}
+					}
+				}
+				long time = System.nanoTime() - start;
+				System.out.printf("Simulation loop (%s): %.1f ns per step (%d steps)%n", compiled ? "compiled" : "interpreted", (double) time / steps, steps);
+			}
+
+			// Label-style check over all states of the model
+			ExplicitSparseModel model = ExplicitSparseModel.build(modulesFile, prism);
+			long start = System.nanoTime();
+			BitSet sat = model.getStatesSatisfying(target);
+			long timeInterpreted = System.nanoTime() - start;
+			start = System.nanoTime();
+			BitSet satCompiled = model.getStatesSatisfying(targetCompiled);
+			long timeCompiled = System.nanoTime() - start;
+			System.out.println("States satisfying target: " + sat.cardinality() + "/" + satCompiled.cardinality() + " of " + model.getNumStates() + " (" + timeInterpreted / 1000 + " us interpreted, " + timeCompiled / 1000 + " us compiled)");
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (FileNotFoundException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
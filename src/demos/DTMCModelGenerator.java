@@ -112,7 +112,7 @@ public class DTMCModelGenerator
 	 * and the probability of incrementing, rather than decrementing,
 	 * the value is p (n and p are both parameters). 
 	 */
-	class RandomWalk implements ModelGenerator<Double>, RewardGenerator<Double>
+	static class RandomWalk implements ModelGenerator<Double>, RewardGenerator<Double>
 	{
 		// Size of walk (state x is in [-n,...,n])
 		private int n;
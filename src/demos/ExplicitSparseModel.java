@@ -0,0 +1,654 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+import parser.State;
+import parser.ast.Expression;
+import parser.ast.ModulesFile;
+import prism.ModelGenerator;
+import prism.ModelType;
+import prism.PrismComponent;
+import prism.PrismException;
+import prism.RewardGenerator;
+import simulator.ModulesFileModelGenerator;
+
+/**
+ * A simple explicit-state representation of a model built from a {@link prism.ModelGenerator},
+ * stored as primitive arrays in compressed sparse row (CSR) format:
+ * states index into {@code choiceStarts}, choices index into {@code transStarts},
+ * and transitions are stored as parallel arrays of successor indices and probabilities (or rates).
+ * A Markov chain is stored as a model with (at most) one choice per state:
+ * if the model generator gives several choices for a state of a DTMC or CTMC
+ * (e.g. commands from different modules of a PRISM model that are enabled together),
+ * they are combined into a single one when the model is built, as in PRISM's own model construction,
+ * summing the probabilities (or rates) of all transitions to the same successor.
+ * 
+ * A reverse (predecessor) index can also be constructed on demand,
+ * which is what is needed for backward graph-based analyses.
+ * 
+ * Optionally, all labels (as {@code BitSet}s) and reward structures (as {@code double[]}s)
+ * can be computed in the same pass as construction, and are then stored with the model.
+ */
+public class ExplicitSparseModel
+{
+	// Type of model
+	private ModelType modelType;
+	// States, in order of discovery (index 0 is the initial state)
+	private List<State> states;
+	// Number of states/choices/transitions
+	private int numStates;
+	private int numChoices;
+	private int numTransitions;
+	// Index of first choice for each state (length numStates + 1)
+	private int[] choiceStarts;
+	// Index of first transition for each choice (length numChoices + 1)
+	private int[] transStarts;
+	// Successor state index for each transition
+	private int[] succs;
+	// Probability (or rate) for each transition
+	private double[] probs;
+	// Action label for each choice (may be null)
+	private Object[] actions;
+	// For Markov chains (whose choices are combined): index of the (combined) transition
+	// that each transition of the model generator was added to, in order of exploration,
+	// and the index of the first such entry for each state (length numStates + 1)
+	private int[] genTransMap;
+	private int[] genTransStarts;
+
+	// Labels and rewards (if computed during construction, otherwise null):
+	// label names and the states satisfying each label
+	private List<String> labelNames;
+	private BitSet[] labelStates;
+	// reward structure names, state rewards (per state) and state-action rewards (per choice)
+	private List<String> rewardStructNames;
+	private double[][] stateRewards;
+	private double[][] choiceRewards;
+
+	// Reverse index (built on demand):
+	// index of first predecessor entry for each state (length numStates + 1)
+	private int[] predStarts;
+	// predecessor state and (global) choice index for each predecessor entry
+	private int[] predStates;
+	private int[] predChoices;
+
+	/**
+	 * Build an explicit model by exploring all reachable states of a model generator.
+	 * States are numbered in breadth-first order, starting from the initial state.
+	 * States are indexed using a {@link PackedStateIndex} if all variables are bounded
+	 * integers/booleans (and fit into 63 bits), and a {@code HashMap} otherwise.
+	 * @param modelGen The model generator
+	 */
+	public static ExplicitSparseModel build(ModelGenerator<Double> modelGen) throws PrismException
+	{
+		return build(modelGen, true);
+	}
+
+	/**
+	 * Build an explicit model by exploring all reachable states of a model generator.
+	 * States are numbered in breadth-first order, starting from the initial state.
+	 * @param modelGen The model generator
+	 * @param packed Whether to try indexing states with a {@link PackedStateIndex}
+	 * (if not, or if not possible, a {@code HashMap} is used)
+	 */
+	public static ExplicitSparseModel build(ModelGenerator<Double> modelGen, boolean packed) throws PrismException
+	{
+		return build(modelGen, packed, false);
+	}
+
+	/**
+	 * Build an explicit model by exploring all reachable states of a model generator.
+	 * States are numbered in breadth-first order, starting from the initial state.
+	 * Optionally, all labels and (if the model generator is also a {@link prism.RewardGenerator})
+	 * all reward structures are evaluated for each state while it is being explored,
+	 * and stored with the model (see e.g. {@link #getLabelStates(String)} and {@link #getStateRewards(int)}).
+	 * For a DTMC or CTMC, the choices of each state are combined into one (see above);
+	 * its state-action reward is then the average over the original choices,
+	 * weighted by their total probability (or rate).
+	 * @param modelGen The model generator
+	 * @param packed Whether to try indexing states with a {@link PackedStateIndex}
+	 * (if not, or if not possible, a {@code HashMap} is used)
+	 * @param labelsRewards Whether to compute labels and rewards too
+	 */
+	@SuppressWarnings("unchecked")
+	public static ExplicitSparseModel build(ModelGenerator<Double> modelGen, boolean packed, boolean labelsRewards) throws PrismException
+	{
+		ExplicitSparseModel model = new ExplicitSparseModel();
+		model.modelType = modelGen.getModelType();
+		model.states = new ArrayList<>();
+		PackedStateIndex packedIndex = null;
+		HashMap<State, Integer> stateMap = null;
+		if (packed) {
+			try {
+				packedIndex = new PackedStateIndex(modelGen);
+			} catch (PrismException e) {
+				// Fall back to HashMap
+			}
+		}
+		if (packedIndex == null) {
+			stateMap = new HashMap<>();
+		}
+		int[] choiceStarts = new int[1024];
+		int[] transStarts = new int[1024];
+		int[] succs = new int[1024];
+		double[] probs = new double[1024];
+		Object[] actions = new Object[1024];
+		int nc = 0, nt = 0;
+		// For Markov chains, choices are combined (and generator transitions are mapped to combined ones)
+		boolean markovChain = model.modelType == ModelType.DTMC || model.modelType == ModelType.CTMC;
+		int[] genTransStarts = markovChain ? new int[1024] : null;
+		int[] genTransMap = markovChain ? new int[1024] : null;
+		int numGenTrans = 0;
+		// Set up storage for labels/rewards, if needed
+		int numLabels = 0, numRewardStructs = 0;
+		RewardGenerator<Double> rewardGen = null;
+		double[][] stateRewards = null, choiceRewards = null;
+		if (labelsRewards) {
+			model.labelNames = modelGen.getLabelNames() == null ? new ArrayList<>() : modelGen.getLabelNames();
+			numLabels = model.labelNames.size();
+			model.labelStates = new BitSet[numLabels];
+			for (int l = 0; l < numLabels; l++) {
+				model.labelStates[l] = new BitSet();
+			}
+			if (modelGen instanceof RewardGenerator) {
+				rewardGen = (RewardGenerator<Double>) modelGen;
+				model.rewardStructNames = rewardGen.getRewardStructNames();
+			}
+			if (model.rewardStructNames == null) {
+				model.rewardStructNames = new ArrayList<>();
+			}
+			numRewardStructs = model.rewardStructNames.size();
+			stateRewards = new double[numRewardStructs][1024];
+			choiceRewards = new double[numRewardStructs][1024];
+		}
+		// Explore breadth-first, using the state list itself as the queue
+		State init = modelGen.getInitialState();
+		if (packedIndex != null) {
+			packedIndex.getOrAdd(packedIndex.pack(init));
+		} else {
+			stateMap.put(init, 0);
+		}
+		model.states.add(init);
+		for (int s = 0; s < model.states.size(); s++) {
+			State state = model.states.get(s);
+			modelGen.exploreState(state);
+			choiceStarts = ensureCapacity(choiceStarts, s + 2);
+			choiceStarts[s] = nc;
+			for (int l = 0; l < numLabels; l++) {
+				if (modelGen.isLabelTrue(l)) {
+					model.labelStates[l].set(s);
+				}
+			}
+			for (int r = 0; r < numRewardStructs; r++) {
+				stateRewards[r] = ensureCapacity(stateRewards[r], s + 1);
+				stateRewards[r][s] = rewardGen == null ? 0.0 : rewardGen.getStateReward(r, state);
+			}
+			int numChoices = modelGen.getNumChoices();
+			if (markovChain) {
+				// Combine all choices into one, merging transitions to the same successor;
+				// any state-action rewards are weighted by the probability (or rate) of each choice
+				genTransStarts = ensureCapacity(genTransStarts, s + 2);
+				if (numChoices > 0) {
+					transStarts = ensureCapacity(transStarts, nc + 2);
+					if (nc + 1 >= actions.length) {
+						actions = Arrays.copyOf(actions, transStarts.length);
+					}
+					transStarts[nc] = nt;
+					actions[nc] = numChoices == 1 ? modelGen.getTransitionAction(0, 0) : null;
+					double total = 0.0;
+					double[] rewardSums = new double[numRewardStructs];
+					for (int i = 0; i < numChoices; i++) {
+						double sum = 0.0;
+						int numTransitions = modelGen.getNumTransitions(i);
+						for (int offset = 0; offset < numTransitions; offset++) {
+							int t = addState(model, packedIndex, stateMap, modelGen.computeTransitionTarget(i, offset));
+							double prob = modelGen.getTransitionProbability(i, offset);
+							int j = transStarts[nc];
+							while (j < nt && succs[j] != t) {
+								j++;
+							}
+							if (j == nt) {
+								if (nt + 1 >= succs.length) {
+									succs = Arrays.copyOf(succs, 2 * succs.length);
+									probs = Arrays.copyOf(probs, succs.length);
+								}
+								succs[nt] = t;
+								probs[nt] = 0.0;
+								nt++;
+							}
+							probs[j] += prob;
+							sum += prob;
+							genTransMap = ensureCapacity(genTransMap, numGenTrans + 1);
+							genTransMap[numGenTrans++] = j;
+						}
+						total += sum;
+						for (int r = 0; r < numRewardStructs; r++) {
+							rewardSums[r] += sum * (rewardGen == null ? 0.0 : rewardGen.getStateActionReward(r, state, modelGen.getTransitionAction(i, 0)));
+						}
+					}
+					for (int r = 0; r < numRewardStructs; r++) {
+						choiceRewards[r] = ensureCapacity(choiceRewards[r], nc + 1);
+						choiceRewards[r][nc] = total == 0.0 ? 0.0 : rewardSums[r] / total;
+					}
+					nc++;
+				}
+				genTransStarts[s + 1] = numGenTrans;
+				continue;
+			}
+			for (int i = 0; i < numChoices; i++) {
+				transStarts = ensureCapacity(transStarts, nc + 2);
+				if (nc + 1 >= actions.length) {
+					actions = Arrays.copyOf(actions, transStarts.length);
+				}
+				transStarts[nc] = nt;
+				actions[nc] = modelGen.getTransitionAction(i, 0);
+				for (int r = 0; r < numRewardStructs; r++) {
+					choiceRewards[r] = ensureCapacity(choiceRewards[r], nc + 1);
+					choiceRewards[r][nc] = rewardGen == null ? 0.0 : rewardGen.getStateActionReward(r, state, actions[nc]);
+				}
+				int numTransitions = modelGen.getNumTransitions(i);
+				for (int offset = 0; offset < numTransitions; offset++) {
+					int t = addState(model, packedIndex, stateMap, modelGen.computeTransitionTarget(i, offset));
+					if (nt + 1 >= succs.length) {
+						succs = Arrays.copyOf(succs, 2 * succs.length);
+						probs = Arrays.copyOf(probs, succs.length);
+					}
+					succs[nt] = t;
+					probs[nt] = modelGen.getTransitionProbability(i, offset);
+					nt++;
+				}
+				nc++;
+			}
+		}
+		model.numStates = model.states.size();
+		model.numChoices = nc;
+		model.numTransitions = nt;
+		choiceStarts[model.numStates] = nc;
+		transStarts = ensureCapacity(transStarts, nc + 1);
+		transStarts[nc] = nt;
+		model.choiceStarts = Arrays.copyOf(choiceStarts, model.numStates + 1);
+		model.transStarts = Arrays.copyOf(transStarts, nc + 1);
+		model.succs = Arrays.copyOf(succs, nt);
+		model.probs = Arrays.copyOf(probs, nt);
+		model.actions = Arrays.copyOf(actions, nc);
+		if (markovChain) {
+			model.genTransStarts = Arrays.copyOf(genTransStarts, model.numStates + 1);
+			model.genTransMap = Arrays.copyOf(genTransMap, numGenTrans);
+		}
+		if (labelsRewards) {
+			model.stateRewards = new double[numRewardStructs][];
+			model.choiceRewards = new double[numRewardStructs][];
+			for (int r = 0; r < numRewardStructs; r++) {
+				model.stateRewards[r] = Arrays.copyOf(stateRewards[r], model.numStates);
+				model.choiceRewards[r] = Arrays.copyOf(choiceRewards[r], nc);
+			}
+		}
+		return model;
+	}
+
+	/**
+	 * Build an explicit model for a PRISM model (whose constants should already be defined),
+	 * using a {@link simulator.ModulesFileModelGenerator} to explore it.
+	 * @param modulesFile The model
+	 * @param parent Parent component (e.g. a {@link prism.Prism} object)
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static ExplicitSparseModel build(ModulesFile modulesFile, PrismComponent parent) throws PrismException
+	{
+		return build((ModelGenerator<Double>) new ModulesFileModelGenerator(modulesFile, parent));
+	}
+
+	/**
+	 * Create a copy of this model with the same structure (states, choices, transitions,
+	 * successors and, if built, the reverse index, all shared with this model) but with new transition
+	 * probabilities, obtained from a model generator by calling {@code getTransitionProbability}
+	 * for each (already explored) state. Successor states are not recomputed or looked up,
+	 * so this is only valid if the model generator has the same reachable state space and
+	 * transition structure as the one used to build this model; only the numbers of choices
+	 * and transitions are checked. For a Markov chain (whose choices were combined when it was built),
+	 * the new probabilities of the model generator's transitions are combined in the same way.
+	 * Like any {@link ExplicitSparseModel}, the result is for use by the example classes here
+	 * (e.g. {@link BoundedAnalysis} or {@link ParametricReachability}); it cannot be passed to PRISM's
+	 * model checker, which builds its own model from the (new) model generator.
+	 * @param modelGen The model generator (e.g. the same model with different parameters)
+	 */
+	public ExplicitSparseModel reweight(ModelGenerator<Double> modelGen) throws PrismException
+	{
+		double[] newProbs = new double[numTransitions];
+		if (genTransMap != null) {
+			for (int s = 0; s < numStates; s++) {
+				modelGen.exploreState(states.get(s));
+				int k = genTransStarts[s];
+				int numChoicesS = modelGen.getNumChoices();
+				for (int i = 0; i < numChoicesS; i++) {
+					int numTransitionsI = modelGen.getNumTransitions(i);
+					if (k + numTransitionsI > genTransStarts[s + 1]) {
+						throw new PrismException("Model structure differs (number of transitions in state " + states.get(s) + ")");
+					}
+					for (int offset = 0; offset < numTransitionsI; offset++) {
+						newProbs[genTransMap[k++]] += modelGen.getTransitionProbability(i, offset);
+					}
+				}
+				if (k != genTransStarts[s + 1]) {
+					throw new PrismException("Model structure differs (number of transitions in state " + states.get(s) + ")");
+				}
+			}
+		} else {
+			for (int s = 0; s < numStates; s++) {
+				modelGen.exploreState(states.get(s));
+				int numChoicesS = choiceStarts[s + 1] - choiceStarts[s];
+				if (modelGen.getNumChoices() != numChoicesS) {
+					throw new PrismException("Model structure differs (number of choices in state " + states.get(s) + ")");
+				}
+				for (int i = 0; i < numChoicesS; i++) {
+					int c = choiceStarts[s] + i;
+					int numTransitionsC = transStarts[c + 1] - transStarts[c];
+					if (modelGen.getNumTransitions(i) != numTransitionsC) {
+						throw new PrismException("Model structure differs (number of transitions in state " + states.get(s) + ")");
+					}
+					for (int offset = 0; offset < numTransitionsC; offset++) {
+						newProbs[transStarts[c] + offset] = modelGen.getTransitionProbability(i, offset);
+					}
+				}
+			}
+		}
+		ExplicitSparseModel model = new ExplicitSparseModel();
+		model.modelType = modelType;
+		model.states = states;
+		model.numStates = numStates;
+		model.numChoices = numChoices;
+		model.numTransitions = numTransitions;
+		model.choiceStarts = choiceStarts;
+		model.transStarts = transStarts;
+		model.succs = succs;
+		model.probs = newProbs;
+		model.actions = actions;
+		model.genTransMap = genTransMap;
+		model.genTransStarts = genTransStarts;
+		// Labels do not depend on probabilities, so can be shared too (but rewards may, so are not)
+		model.labelNames = labelNames;
+		model.labelStates = labelStates;
+		// Share the reverse index too, if it has been built
+		model.predStarts = predStarts;
+		model.predStates = predStates;
+		model.predChoices = predChoices;
+		return model;
+	}
+
+	/**
+	 * Get the index of a state, adding it to the model (and the state index) if it is new.
+	 */
+	private static int addState(ExplicitSparseModel model, PackedStateIndex packedIndex, HashMap<State, Integer> stateMap, State state) throws PrismException
+	{
+		if (packedIndex != null) {
+			int t = packedIndex.getOrAdd(packedIndex.pack(state));
+			if (t == model.states.size()) {
+				model.states.add(state);
+			}
+			return t;
+		}
+		Integer t = stateMap.get(state);
+		if (t == null) {
+			t = model.states.size();
+			stateMap.put(state, t);
+			model.states.add(state);
+		}
+		return t;
+	}
+
+	private static int[] ensureCapacity(int[] array, int size)
+	{
+		return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, 2 * array.length));
+	}
+
+	private static double[] ensureCapacity(double[] array, int size)
+	{
+		return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, 2 * array.length));
+	}
+
+	// Accessors
+
+	public ModelType getModelType()
+	{
+		return modelType;
+	}
+
+	public List<State> getStates()
+	{
+		return states;
+	}
+
+	public int getNumStates()
+	{
+		return numStates;
+	}
+
+	public int getNumChoices()
+	{
+		return numChoices;
+	}
+
+	public int getNumTransitions()
+	{
+		return numTransitions;
+	}
+
+	public int[] getChoiceStarts()
+	{
+		return choiceStarts;
+	}
+
+	public int[] getTransStarts()
+	{
+		return transStarts;
+	}
+
+	public int[] getSuccessors()
+	{
+		return succs;
+	}
+
+	public double[] getProbabilities()
+	{
+		return probs;
+	}
+
+	public Object[] getActions()
+	{
+		return actions;
+	}
+
+	/**
+	 * Check whether labels and rewards were computed when this model was built.
+	 */
+	public boolean hasLabelsAndRewards()
+	{
+		return labelStates != null;
+	}
+
+	/**
+	 * Get the (stored) set of states satisfying a label,
+	 * which is only available if labels were computed when the model was built.
+	 * The returned set should not be modified.
+	 * @param label The label name
+	 */
+	public BitSet getLabelStates(String label) throws PrismException
+	{
+		if (labelStates == null) {
+			throw new PrismException("Labels were not computed when the model was built");
+		}
+		int l = labelNames.indexOf(label);
+		if (l == -1) {
+			throw new PrismException("Unknown label \"" + label + "\"");
+		}
+		return labelStates[l];
+	}
+
+	/**
+	 * Get the names of the (stored) reward structures, or null if rewards were not computed.
+	 */
+	public List<String> getRewardStructNames()
+	{
+		return rewardStructNames;
+	}
+
+	/**
+	 * Get the (stored) state rewards for the {@code r}th reward structure (indexed by state),
+	 * or null if rewards were not computed when the model was built.
+	 */
+	public double[] getStateRewards(int r)
+	{
+		return stateRewards == null ? null : stateRewards[r];
+	}
+
+	/**
+	 * Get the (stored) state-action rewards for the {@code r}th reward structure (indexed by choice),
+	 * or null if rewards were not computed when the model was built.
+	 */
+	public double[] getChoiceRewards(int r)
+	{
+		return choiceRewards == null ? null : choiceRewards[r];
+	}
+
+	/**
+	 * Get the set of states satisfying a label. If labels were computed when the model
+	 * was built, this is a copy of the stored set; otherwise each state is re-explored
+	 * with the model generator used to build the model and {@code isLabelTrue} is called.
+	 * @param modelGen The model generator (for the same model)
+	 * @param label The label name
+	 */
+	public BitSet getLabelStates(ModelGenerator<Double> modelGen, String label) throws PrismException
+	{
+		if (labelStates != null) {
+			return (BitSet) getLabelStates(label).clone();
+		}
+		int l = modelGen.getLabelIndex(label);
+		if (l == -1) {
+			throw new PrismException("Unknown label \"" + label + "\"");
+		}
+		BitSet bs = new BitSet(numStates);
+		for (int s = 0; s < numStates; s++) {
+			modelGen.exploreState(states.get(s));
+			if (modelGen.isLabelTrue(l)) {
+				bs.set(s);
+			}
+		}
+		return bs;
+	}
+
+	/**
+	 * Get the set of states satisfying a (non-probabilistic) expression over the model's variables.
+	 * @param expr The expression (whose variable indices should match the model's)
+	 */
+	public BitSet getStatesSatisfying(Expression expr) throws PrismException
+	{
+		BitSet bs = new BitSet(numStates);
+		for (int s = 0; s < numStates; s++) {
+			if (expr.evaluateBoolean(states.get(s))) {
+				bs.set(s);
+			}
+		}
+		return bs;
+	}
+
+	/**
+	 * Get the set of states satisfying a compiled (boolean-valued) expression over the model's variables.
+	 * @param expr The compiled expression
+	 */
+	public BitSet getStatesSatisfying(CompiledExpression.BooleanFunction expr) throws PrismException
+	{
+		BitSet bs = new BitSet(numStates);
+		int[] vals = new int[states.get(0).varValues.length];
+		for (int s = 0; s < numStates; s++) {
+			if (expr.evaluate(CompiledExpression.encode(states.get(s), vals))) {
+				bs.set(s);
+			}
+		}
+		return bs;
+	}
+
+	// Reverse index
+
+	/**
+	 * Build the reverse (predecessor) index, if not already done.
+	 * For each state t, this stores an entry (s, c) for every transition
+	 * of choice c (of state s) that leads to t.
+	 * Duplicate entries (e.g. two transitions of the same choice to t) are kept.
+	 */
+	public void buildReverseIndex()
+	{
+		if (predStarts != null) {
+			return;
+		}
+		// Counting sort of transitions by successor
+		int[] starts = new int[numStates + 1];
+		for (int j = 0; j < numTransitions; j++) {
+			starts[succs[j] + 1]++;
+		}
+		for (int t = 0; t < numStates; t++) {
+			starts[t + 1] += starts[t];
+		}
+		int[] next = Arrays.copyOf(starts, numStates);
+		int[] preds = new int[numTransitions];
+		int[] predCs = new int[numTransitions];
+		for (int s = 0; s < numStates; s++) {
+			for (int c = choiceStarts[s]; c < choiceStarts[s + 1]; c++) {
+				for (int j = transStarts[c]; j < transStarts[c + 1]; j++) {
+					int k = next[succs[j]]++;
+					preds[k] = s;
+					predCs[k] = c;
+				}
+			}
+		}
+		predStates = preds;
+		predChoices = predCs;
+		predStarts = starts;
+	}
+
+	public int[] getPredStarts()
+	{
+		buildReverseIndex();
+		return predStarts;
+	}
+
+	public int[] getPredStates()
+	{
+		buildReverseIndex();
+		return predStates;
+	}
+
+	public int[] getPredChoices()
+	{
+		buildReverseIndex();
+		return predChoices;
+	}
+}
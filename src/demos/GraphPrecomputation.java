@@ -0,0 +1,604 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import parser.State;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+import parser.ast.Expression;
+import parser.type.Type;
+import parser.type.TypeInt;
+import prism.DefaultModelGenerator;
+import prism.ModelType;
+import prism.PrismException;
+
+/**
+ * An example class showing how the qualitative (graph-based) precomputation
+ * steps used before numerical solution of probabilistic reachability
+ * (prob0/prob1 for DTMCs, prob0E/prob1A for MDPs) can be carried out
+ * on an {@link ExplicitSparseModel} using bitsets and its reverse (predecessor) index.
+ * 
+ * Each algorithm is a backward fixed point, computed here as a frontier-based
+ * breadth-first search. In {@link Mode#PARALLEL} mode, each frontier is expanded
+ * in parallel, with membership and per-choice/per-state bookkeeping held in atomic arrays.
+ * 
+ * Running the class benchmarks the two modes on some generated models, checking that they agree.
+ * Since small frontiers are expanded sequentially in either mode, it also reports frontier sizes:
+ * parallelism only pays off for models with wide frontiers (e.g. {@link RandomGraph}),
+ * not for long, thin ones like the random walk.
+ */
+public class GraphPrecomputation
+{
+	/**
+	 * Precomputation mode
+	 */
+	public enum Mode {
+		SEQUENTIAL, PARALLEL
+	};
+
+	// Frontiers smaller than this are expanded sequentially, even in parallel mode
+	private static final int PARALLEL_THRESHOLD = 4096;
+
+	// Mode to use
+	private Mode mode;
+
+	// Frontier statistics (parallel mode only, since the last call to resetStats()):
+	// number of frontiers (layers), how many were expanded in parallel, and the largest one
+	private int numLayers;
+	private int numParallelLayers;
+	private int maxFrontierSize;
+
+	public GraphPrecomputation(Mode mode)
+	{
+		this.mode = mode;
+	}
+
+	public Mode getMode()
+	{
+		return mode;
+	}
+
+	/**
+	 * Reset frontier statistics.
+	 */
+	public void resetStats()
+	{
+		numLayers = 0;
+		numParallelLayers = 0;
+		maxFrontierSize = 0;
+	}
+
+	public int getNumLayers()
+	{
+		return numLayers;
+	}
+
+	public int getNumParallelLayers()
+	{
+		return numParallelLayers;
+	}
+
+	public int getMaxFrontierSize()
+	{
+		return maxFrontierSize;
+	}
+
+	/**
+	 * Prob0 precomputation for a DTMC: compute the states with probability 0 of reaching {@code target}.
+	 * For an MDP, this gives the states with maximum probability 0 (i.e. "prob0A").
+	 */
+	public BitSet prob0(ExplicitSparseModel model, BitSet target)
+	{
+		BitSet reach = backwardReach(model, target, null);
+		reach.flip(0, model.getNumStates());
+		return reach;
+	}
+
+	/**
+	 * Prob1 precomputation for a DTMC: compute the states with probability 1 of reaching {@code target}.
+	 * @param no The result of {@link #prob0(ExplicitSparseModel, BitSet)} for the same target
+	 */
+	public BitSet prob1(ExplicitSparseModel model, BitSet target, BitSet no)
+	{
+		// Complement of the states that can reach a "no" state without passing through target
+		BitSet reach = backwardReach(model, no, target);
+		reach.flip(0, model.getNumStates());
+		return reach;
+	}
+
+	/**
+	 * Prob0E precomputation for an MDP: compute the states for which there exists
+	 * a strategy with probability 0 of reaching {@code target} (i.e. minimum probability 0).
+	 */
+	public BitSet prob0E(ExplicitSparseModel model, BitSet target)
+	{
+		BitSet reach = forcedReach(model, target);
+		reach.flip(0, model.getNumStates());
+		return reach;
+	}
+
+	/**
+	 * Prob1A precomputation for an MDP: compute the states for which all strategies
+	 * reach {@code target} with probability 1 (i.e. minimum probability 1).
+	 * @param no0E The result of {@link #prob0E(ExplicitSparseModel, BitSet)} for the same target
+	 */
+	public BitSet prob1A(ExplicitSparseModel model, BitSet target, BitSet no0E)
+	{
+		// Complement of the states for which some choices can reach a prob0E state
+		// without passing through target (an MDP is treated as a graph here, as for prob1)
+		BitSet reach = backwardReach(model, no0E, target);
+		reach.flip(0, model.getNumStates());
+		return reach;
+	}
+
+	// Fixed point computations
+
+	/**
+	 * Compute the states that can reach a state in {@code from} (including those states themselves)
+	 * along a path whose other states are not in {@code avoid} (which may be null).
+	 */
+	private BitSet backwardReach(ExplicitSparseModel model, BitSet from, BitSet avoid)
+	{
+		int numStates = model.getNumStates();
+		int[] predStarts = model.getPredStarts();
+		int[] predStates = model.getPredStates();
+		if (mode == Mode.SEQUENTIAL) {
+			BitSet reach = (BitSet) from.clone();
+			int[] queue = new int[numStates];
+			int head = 0, tail = 0;
+			for (int t = from.nextSetBit(0); t >= 0; t = from.nextSetBit(t + 1)) {
+				queue[tail++] = t;
+			}
+			while (head < tail) {
+				int t = queue[head++];
+				for (int k = predStarts[t]; k < predStarts[t + 1]; k++) {
+					int s = predStates[k];
+					if (!reach.get(s) && (avoid == null || !avoid.get(s))) {
+						reach.set(s);
+						queue[tail++] = s;
+					}
+				}
+			}
+			return reach;
+		} else {
+			AtomicLongArray reach = toAtomic(from, numStates);
+			int[] frontier = new int[numStates];
+			int[] next = new int[numStates];
+			int frontierSize = 0;
+			for (int t = from.nextSetBit(0); t >= 0; t = from.nextSetBit(t + 1)) {
+				frontier[frontierSize++] = t;
+			}
+			AtomicInteger nextSize = new AtomicInteger();
+			while (frontierSize > 0) {
+				final int[] current = frontier;
+				final int[] successors = next;
+				nextSize.set(0);
+				IntStream indices = IntStream.range(0, frontierSize);
+				numLayers++;
+				maxFrontierSize = Math.max(maxFrontierSize, frontierSize);
+				if (frontierSize >= PARALLEL_THRESHOLD) {
+					indices = indices.parallel();
+					numParallelLayers++;
+				}
+				indices.forEach(i -> {
+					int t = current[i];
+					for (int k = predStarts[t]; k < predStarts[t + 1]; k++) {
+						int s = predStates[k];
+						if ((avoid == null || !avoid.get(s)) && setAtomic(reach, s)) {
+							successors[nextSize.getAndIncrement()] = s;
+						}
+					}
+				});
+				// Swap frontier buffers (each state enters a frontier at most once)
+				frontierSize = nextSize.get();
+				next = frontier;
+				frontier = successors;
+			}
+			return fromAtomic(reach, numStates);
+		}
+	}
+
+	/**
+	 * Compute the states from which every strategy reaches {@code target} with positive probability,
+	 * i.e. the least fixed point of: target, plus states all of whose choices
+	 * have at least one successor already in the set.
+	 */
+	private BitSet forcedReach(ExplicitSparseModel model, BitSet target)
+	{
+		int numStates = model.getNumStates();
+		int[] choiceStarts = model.getChoiceStarts();
+		int[] predStarts = model.getPredStarts();
+		int[] predStates = model.getPredStates();
+		int[] predChoices = model.getPredChoices();
+		if (mode == Mode.SEQUENTIAL) {
+			BitSet reach = (BitSet) target.clone();
+			BitSet choiceHit = new BitSet(model.getNumChoices());
+			// Number of choices of each state not yet known to hit the set
+			int[] remaining = new int[numStates];
+			for (int s = 0; s < numStates; s++) {
+				remaining[s] = choiceStarts[s + 1] - choiceStarts[s];
+			}
+			int[] queue = new int[numStates];
+			int head = 0, tail = 0;
+			for (int t = target.nextSetBit(0); t >= 0; t = target.nextSetBit(t + 1)) {
+				queue[tail++] = t;
+			}
+			while (head < tail) {
+				int t = queue[head++];
+				for (int k = predStarts[t]; k < predStarts[t + 1]; k++) {
+					int s = predStates[k];
+					int c = predChoices[k];
+					if (!reach.get(s) && !choiceHit.get(c)) {
+						choiceHit.set(c);
+						if (--remaining[s] == 0) {
+							reach.set(s);
+							queue[tail++] = s;
+						}
+					}
+				}
+			}
+			return reach;
+		} else {
+			AtomicLongArray reach = toAtomic(target, numStates);
+			AtomicLongArray choiceHit = new AtomicLongArray((model.getNumChoices() + 63) >> 6);
+			AtomicIntegerArray remaining = new AtomicIntegerArray(numStates);
+			for (int s = 0; s < numStates; s++) {
+				remaining.set(s, choiceStarts[s + 1] - choiceStarts[s]);
+			}
+			int[] frontier = new int[numStates];
+			int[] next = new int[numStates];
+			int frontierSize = 0;
+			for (int t = target.nextSetBit(0); t >= 0; t = target.nextSetBit(t + 1)) {
+				frontier[frontierSize++] = t;
+			}
+			AtomicInteger nextSize = new AtomicInteger();
+			while (frontierSize > 0) {
+				final int[] current = frontier;
+				final int[] successors = next;
+				nextSize.set(0);
+				IntStream indices = IntStream.range(0, frontierSize);
+				numLayers++;
+				maxFrontierSize = Math.max(maxFrontierSize, frontierSize);
+				if (frontierSize >= PARALLEL_THRESHOLD) {
+					indices = indices.parallel();
+					numParallelLayers++;
+				}
+				indices.forEach(i -> {
+					int t = current[i];
+					for (int k = predStarts[t]; k < predStarts[t + 1]; k++) {
+						int s = predStates[k];
+						// Each choice is counted once (by whichever thread marks it first)
+						// and the state is added by the thread that takes the count to 0
+						if (!getAtomic(reach, s) && setAtomic(choiceHit, predChoices[k])) {
+							if (remaining.decrementAndGet(s) == 0 && setAtomic(reach, s)) {
+								successors[nextSize.getAndIncrement()] = s;
+							}
+						}
+					}
+				});
+				frontierSize = nextSize.get();
+				next = frontier;
+				frontier = successors;
+			}
+			return fromAtomic(reach, numStates);
+		}
+	}
+
+	// Atomic bitset utilities
+
+	private static AtomicLongArray toAtomic(BitSet bs, int size)
+	{
+		AtomicLongArray bits = new AtomicLongArray((size + 63) >> 6);
+		long[] words = bs.toLongArray();
+		for (int w = 0; w < words.length; w++) {
+			bits.set(w, words[w]);
+		}
+		return bits;
+	}
+
+	private static BitSet fromAtomic(AtomicLongArray bits, int size)
+	{
+		long[] words = new long[bits.length()];
+		for (int w = 0; w < words.length; w++) {
+			words[w] = bits.get(w);
+		}
+		return BitSet.valueOf(words);
+	}
+
+	private static boolean getAtomic(AtomicLongArray bits, int i)
+	{
+		return (bits.get(i >> 6) & (1L << i)) != 0;
+	}
+
+	/**
+	 * Set bit {@code i}, returning true if it was not already set (i.e. this call set it).
+	 */
+	private static boolean setAtomic(AtomicLongArray bits, int i)
+	{
+		int w = i >> 6;
+		long mask = 1L << i;
+		while (true) {
+			long old = bits.get(w);
+			if ((old & mask) != 0) {
+				return false;
+			}
+			if (bits.compareAndSet(w, old, old | mask)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * ModelGenerator defining a random graph, as a DTMC (or an MDP, if there is more than one choice per state),
+	 * whose states 0..n-1 each have {@code numChoices} choices, each with {@code degree} uniformly chosen
+	 * successors (fixed by a hash of the state, choice and index). States in the last tenth are absorbing
+	 * and the first thousandth are labelled "target". Unlike the random walk or grid models,
+	 * backward searches on such graphs have very wide frontiers.
+	 */
+	static class RandomGraph extends DefaultModelGenerator
+	{
+		// Number of states, choices per state and successors per choice
+		private int n;
+		private int numChoices;
+		private int degree;
+		// Current state being explored
+		private int s;
+
+		public RandomGraph(int n, int numChoices, int degree)
+		{
+			this.n = n;
+			this.numChoices = numChoices;
+			this.degree = degree;
+		}
+
+		@Override
+		public ModelType getModelType()
+		{
+			return numChoices == 1 ? ModelType.DTMC : ModelType.MDP;
+		}
+
+		@Override
+		public List<String> getVarNames()
+		{
+			return Arrays.asList("s");
+		}
+
+		@Override
+		public List<Type> getVarTypes()
+		{
+			return Arrays.asList(TypeInt.getInstance());
+		}
+
+		@Override
+		public DeclarationType getVarDeclarationType(int i) throws PrismException
+		{
+			return new DeclarationInt(Expression.Int(0), Expression.Int(n - 1));
+		}
+
+		@Override
+		public List<String> getLabelNames()
+		{
+			return Arrays.asList("target");
+		}
+
+		@Override
+		public State getInitialState() throws PrismException
+		{
+			return new State(1).setValue(0, 0);
+		}
+
+		@Override
+		public void exploreState(State exploreState) throws PrismException
+		{
+			s = ((Integer) exploreState.varValues[0]).intValue();
+		}
+
+		private boolean isAbsorbing()
+		{
+			return s >= n - n / 10;
+		}
+
+		@Override
+		public int getNumChoices() throws PrismException
+		{
+			return isAbsorbing() ? 1 : numChoices;
+		}
+
+		@Override
+		public int getNumTransitions(int i) throws PrismException
+		{
+			return isAbsorbing() ? 1 : degree;
+		}
+
+		@Override
+		public Object getTransitionAction(int i, int offset) throws PrismException
+		{
+			return null;
+		}
+
+		@Override
+		public Double getTransitionProbability(int i, int offset) throws PrismException
+		{
+			return isAbsorbing() ? 1.0 : 1.0 / degree;
+		}
+
+		@Override
+		public State computeTransitionTarget(int i, int offset) throws PrismException
+		{
+			if (isAbsorbing()) {
+				return new State(1).setValue(0, s);
+			}
+			// SplitMix64-style hash of (state, choice, offset)
+			long z = ((long) s * numChoices + i) * degree + offset + 0x9E3779B97F4A7C15L;
+			z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+			z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+			z = z ^ (z >>> 31);
+			return new State(1).setValue(0, (int) Math.floorMod(z, (long) n));
+		}
+
+		@Override
+		public boolean isLabelTrue(int i) throws PrismException
+		{
+			return s < Math.max(1, n / 1000);
+		}
+	}
+
+	// Benchmark
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}),
+	 * which benchmarks both modes, each with its own instance.
+	 */
+	private GraphPrecomputation()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new GraphPrecomputation().run();
+	}
+
+	public void run()
+	{
+		try {
+			System.out.println("Threads available: " + Runtime.getRuntime().availableProcessors());
+			
+			// A large random walk (DTMC), for P=?[F "left"]: frontiers of 1 state, so never parallel
+			for (int n : new int[] { 100000, 500000 }) {
+				DTMCModelGenerator.RandomWalk modelGen = new DTMCModelGenerator.RandomWalk(n, 0.6);
+				ExplicitSparseModel model = ExplicitSparseModel.build(modelGen);
+				model.buildReverseIndex();
+				BitSet target = model.getLabelStates(modelGen, "left");
+				System.out.println("\nRandomWalk(" + n + "): " + model.getNumStates() + " states, P=?[F \"left\"]");
+				benchmarkDTMC(model, target);
+			}
+
+			// A random graph (DTMC), for P=?[F "target"]: wide frontiers
+			for (int n : new int[] { 1000000, 4000000 }) {
+				RandomGraph modelGen = new RandomGraph(n, 1, 4);
+				ExplicitSparseModel model = ExplicitSparseModel.build(modelGen);
+				model.buildReverseIndex();
+				BitSet target = model.getLabelStates(modelGen, "target");
+				System.out.println("\nRandomGraph(" + n + ", 1, 4): " + model.getNumStates() + " states, P=?[F \"target\"]");
+				benchmarkDTMC(model, target);
+			}
+
+			// A large grid (MDP), for Pmax=?[F "target"] and Pmin=?[F "target"]: frontiers of at most about 2n states
+			for (int n : new int[] { 300, 600 }) {
+				MDPModelGenerator.GridModel modelGen = new MDPModelGenerator.GridModel(n);
+				ExplicitSparseModel model = ExplicitSparseModel.build(modelGen);
+				model.buildReverseIndex();
+				BitSet target = model.getLabelStates(modelGen, "target");
+				System.out.println("\nGridModel(" + n + "): " + model.getNumStates() + " states, " + model.getNumTransitions() + " transitions, P{max,min}=?[F \"target\"]");
+				benchmarkMDP(model, target);
+			}
+
+			// A random graph (MDP), for Pmax=?[F "target"] and Pmin=?[F "target"]: wide frontiers
+			for (int n : new int[] { 1000000, 2000000 }) {
+				RandomGraph modelGen = new RandomGraph(n, 3, 2);
+				ExplicitSparseModel model = ExplicitSparseModel.build(modelGen);
+				model.buildReverseIndex();
+				BitSet target = model.getLabelStates(modelGen, "target");
+				System.out.println("\nRandomGraph(" + n + ", 3, 2): " + model.getNumStates() + " states, " + model.getNumTransitions() + " transitions, P{max,min}=?[F \"target\"]");
+				benchmarkMDP(model, target);
+			}
+
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Time prob0/prob1 in both modes, check that they agree and report frontier sizes.
+	 */
+	private static void benchmarkDTMC(ExplicitSparseModel model, BitSet target) throws PrismException
+	{
+		BitSet[] results = null;
+		for (Mode mode : Mode.values()) {
+			GraphPrecomputation precomp = new GraphPrecomputation(mode);
+			long time = Timing.bestTimeNanos(() -> {
+				BitSet no = precomp.prob0(model, target);
+				precomp.prob1(model, target, no);
+			});
+			precomp.resetStats();
+			BitSet no = precomp.prob0(model, target);
+			BitSet yes = precomp.prob1(model, target, no);
+			System.out.println(mode + ": prob0/prob1 " + time / 1000000 + " ms (no=" + no.cardinality() + ", yes=" + yes.cardinality() + ")" + frontierStats(precomp));
+			results = checkSame(results, new BitSet[] { no, yes });
+		}
+	}
+
+	/**
+	 * Time prob0A and prob0E/prob1A in both modes, check that they agree and report frontier sizes.
+	 */
+	private static void benchmarkMDP(ExplicitSparseModel model, BitSet target) throws PrismException
+	{
+		BitSet[] results = null;
+		for (Mode mode : Mode.values()) {
+			GraphPrecomputation precomp = new GraphPrecomputation(mode);
+			long time0A = Timing.bestTimeNanos(() -> precomp.prob0(model, target));
+			long timeE = Timing.bestTimeNanos(() -> {
+				BitSet no = precomp.prob0E(model, target);
+				precomp.prob1A(model, target, no);
+			});
+			precomp.resetStats();
+			BitSet no0A = precomp.prob0(model, target);
+			BitSet no = precomp.prob0E(model, target);
+			BitSet yes = precomp.prob1A(model, target, no);
+			System.out.println(mode + ": prob0A " + time0A / 1000000 + " ms, prob0E/prob1A " + timeE / 1000000 + " ms (no=" + no.cardinality() + ", yes=" + yes.cardinality() + ")" + frontierStats(precomp));
+			results = checkSame(results, new BitSet[] { no0A, no, yes });
+		}
+	}
+
+	private static String frontierStats(GraphPrecomputation precomp)
+	{
+		if (precomp.getMode() == Mode.SEQUENTIAL) {
+			return "";
+		}
+		return ", frontiers: " + precomp.getNumLayers() + " (" + precomp.getNumParallelLayers() + " parallel), max size " + precomp.getMaxFrontierSize();
+	}
+
+	/**
+	 * Check that results match those for the previous mode (if any), returning the new ones.
+	 */
+	private static BitSet[] checkSame(BitSet[] previous, BitSet[] results) throws PrismException
+	{
+		if (previous != null && !Arrays.equals(previous, results)) {
+			throw new PrismException("Sequential and parallel precomputation results differ");
+		}
+		return results;
+	}
+}
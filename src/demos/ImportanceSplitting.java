@@ -0,0 +1,298 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import parser.State;
+import parser.Values;
+import parser.ast.Expression;
+import parser.ast.ModulesFile;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+import simulator.SimulatorEngine;
+
+/**
+ * An example class showing rare-event simulation using importance splitting
+ * (fixed-effort multilevel splitting) on top of PRISM's {@link simulator.SimulatorEngine}.
+ * 
+ * The quantity estimated is the probability of reaching a target within a time bound
+ * (or step bound, for discrete-time models). A user-supplied importance function maps
+ * states to integer levels, with the target lying at or above the top level.
+ * Each stage runs a fixed number of path segments, each starting from a state
+ * (and time) picked at random among those at which the previous stage's segments
+ * first reached the current level. A segment stops when it reaches the next level
+ * or the time bound expires. The product of the fractions of successful segments
+ * over all stages is an unbiased estimate of the probability. 
+ * Independent repetitions of the whole procedure give a relative error.
+ * 
+ * Running the class compares this with naive Monte Carlo for a rare target in {@code nacl.sm}.
+ */
+public class ImportanceSplitting
+{
+	// Simulator (with model already loaded)
+	private SimulatorEngine sim;
+	// Target
+	private Expression target;
+	// Importance function
+	private ToIntFunction<State> importance;
+	// Levels (increasing; the last should be reached only in target states)
+	private int[] levels;
+	// Time bound
+	private double timeBound;
+	// Number of path segments per stage
+	private int effort;
+	// Random number generator (for picking starting states)
+	private Random rng;
+
+	// Total number of simulation steps, and of path segments, used so far
+	private long totalSteps;
+	private long totalSegments;
+
+	/**
+	 * Create a splitting estimator.
+	 * @param sim Simulator, with the model already loaded
+	 * @param target Target expression
+	 * @param importance Importance function (higher is closer to the target)
+	 * @param levels Level thresholds for the importance function, in increasing order 
+	 * @param timeBound Time bound for reaching the target
+	 * @param effort Number of path segments per stage
+	 * @param seed Seed for picking starting states
+	 */
+	public ImportanceSplitting(SimulatorEngine sim, Expression target, ToIntFunction<State> importance, int[] levels, double timeBound, int effort, long seed)
+	{
+		this.sim = sim;
+		this.target = target;
+		this.importance = importance;
+		this.levels = levels;
+		this.timeBound = timeBound;
+		this.effort = effort;
+		this.rng = new Random(seed);
+	}
+
+	/**
+	 * Compute one estimate of the probability of reaching the target within the time bound.
+	 * @param initState Initial state (null for the model's default)
+	 */
+	public double estimate(State initState) throws PrismException
+	{
+		// Starting points for the current stage (states and the times at which they were reached)
+		List<State> startStates = new ArrayList<>();
+		List<Double> startTimes = new ArrayList<>();
+		// (the on-the-fly path overwrites its current state in place, so states are copied when stored)
+		sim.initialisePath(initState);
+		startStates.add(new State(sim.getCurrentState()));
+		startTimes.add(0.0);
+		double estimate = 1.0;
+		for (int level = 0; level < levels.length; level++) {
+			boolean last = level == levels.length - 1;
+			List<State> nextStates = new ArrayList<>();
+			List<Double> nextTimes = new ArrayList<>();
+			for (int i = 0; i < effort; i++) {
+				int k = rng.nextInt(startStates.size());
+				double startTime = startTimes.get(k);
+				sim.initialisePath(startStates.get(k));
+				totalSegments++;
+				// Run until the next level (or, for the last, the target) is reached, or time runs out
+				while (true) {
+					State state = sim.getCurrentState();
+					double time = startTime + sim.getPath().getTotalTime();
+					if (time > timeBound) {
+						break;
+					}
+					if (last ? target.evaluateBoolean(state) : importance.applyAsInt(state) >= levels[level]) {
+						nextStates.add(new State(state));
+						nextTimes.add(time);
+						break;
+					}
+					if (!sim.automaticTransition()) {
+						break;
+					}
+					totalSteps++;
+				}
+			}
+			estimate *= (double) nextStates.size() / effort;
+			if (nextStates.isEmpty()) {
+				return 0.0;
+			}
+			startStates = nextStates;
+			startTimes = nextTimes;
+		}
+		return estimate;
+	}
+
+	/**
+	 * Simulate paths for naive Monte Carlo estimation of the probability
+	 * of reaching the target within the time bound, returning the number that do.
+	 * @param initState Initial state (null for the model's default)
+	 * @param numPaths Number of paths
+	 */
+	public int simulateNaive(State initState, int numPaths) throws PrismException
+	{
+		int hits = 0;
+		for (int i = 0; i < numPaths; i++) {
+			sim.initialisePath(initState);
+			totalSegments++;
+			while (sim.getPath().getTotalTime() <= timeBound) {
+				if (target.evaluateBoolean(sim.getCurrentState())) {
+					hits++;
+					break;
+				}
+				if (!sim.automaticTransition()) {
+					break;
+				}
+				totalSteps++;
+			}
+		}
+		return hits;
+	}
+
+	public long getTotalSteps()
+	{
+		return totalSteps;
+	}
+
+	public long getTotalSegments()
+	{
+		return totalSegments;
+	}
+
+	public void resetCounts()
+	{
+		totalSteps = 0;
+		totalSegments = 0;
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private ImportanceSplitting()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new ImportanceSplitting().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+
+			// Parse and load a PRISM model from a file, as in SimulateModel
+			// (but with more molecules, so that there are rarer events) 
+			int n = 20;
+			ModulesFile modulesFile = prism.parseModelFile(new File("examples/nacl.sm"));
+			prism.loadPRISMModel(modulesFile);
+			Values vals = new Values();
+			vals.addValue("N1", n);
+			vals.addValue("N2", n);
+			prism.setPRISMModelConstants(vals);
+			prism.loadModelIntoSimulator();
+			SimulatorEngine sim = prism.getSimulator();
+			sim.createNewOnTheFlyPath();
+
+			// Rare event: all Na molecules ionised (na=0) within 0.01 time units.
+			// Importance is just the number of ionised molecules, with one level per molecule.
+			Expression target = prism.parsePropertiesString(modulesFile, "na=0").getProperty(0);
+			double timeBound = 0.01;
+			int naIndex = modulesFile.getVarIndex("na");
+			ToIntFunction<State> importance = state -> n - ((Integer) state.varValues[naIndex]).intValue();
+			int[] levels = new int[n];
+			for (int i = 0; i < n; i++) {
+				levels[i] = i + 1;
+			}
+
+			// Repeated splitting runs, for a mean and relative error
+			int effort = 1000;
+			int reps = 20;
+			ImportanceSplitting splitting = new ImportanceSplitting(sim, target, importance, levels, timeBound, effort, 1234);
+			double[] estimates = new double[reps];
+			long start = System.nanoTime();
+			for (int r = 0; r < reps; r++) {
+				estimates[r] = splitting.estimate(null);
+			}
+			long time = System.nanoTime() - start;
+			double mean = 0.0;
+			for (double e : estimates) {
+				mean += e;
+			}
+			mean /= reps;
+			double var = 0.0;
+			for (double e : estimates) {
+				var += (e - mean) * (e - mean);
+			}
+			var /= (reps - 1);
+			// Relative error of the mean of the repetitions
+			double relErr = mean > 0 ? Math.sqrt(var / reps) / mean : Double.NaN;
+			System.out.println("P(F<=" + timeBound + " " + target + ") for N1=N2=" + n + ":");
+			System.out.printf("Splitting: %.4g (relative error %.3f), %d path segments, %d steps, %d ms%n", mean, relErr, splitting.getTotalSegments(), splitting.getTotalSteps(), time / 1000000);
+
+			// Naive Monte Carlo with the same number of steps
+			long stepsSplitting = splitting.getTotalSteps();
+			splitting.resetCounts();
+			start = System.nanoTime();
+			int numPaths = 0;
+			int hits = 0;
+			while (splitting.getTotalSteps() < stepsSplitting) {
+				hits += splitting.simulateNaive(null, 1000);
+				numPaths += 1000;
+			}
+			time = System.nanoTime() - start;
+			System.out.printf("Naive Monte Carlo: %.4g (%d hits), %d paths, %d steps, %d ms%n", (double) hits / numPaths, hits, numPaths, splitting.getTotalSteps(), time / 1000000);
+			// Number of naive paths needed for the same relative error: (1-p)/(p*relErr^2)
+			if (mean > 0) {
+				double pathsNeeded = (1 - mean) / (mean * relErr * relErr);
+				System.out.printf("Naive paths needed for the same relative error: %.3g (vs. %d path segments for splitting)%n", pathsNeeded, effort * (long) reps * levels.length);
+			}
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (FileNotFoundException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
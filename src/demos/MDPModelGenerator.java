@@ -124,10 +124,12 @@ public class MDPModelGenerator
 	 * ModelGenerator defining a Markov decision process (MDP) model
 	 * of movement around an n x n grid.
 	 */
-	class GridModel extends DefaultModelGenerator
+	static class GridModel extends DefaultModelGenerator
 	{
 		// Size of grid (n x n)
 		private int n;
+		// Scaling factor for failure probabilities (1 by default)
+		private double probFailMax;
 		// Current state being explored
 		private State exploreState;
 		// Current value of x (x coord: 1<=x<=n)
@@ -144,8 +146,19 @@ public class MDPModelGenerator
 		 * @param n Size of grid (n x n)
 		 */
 		public GridModel(int n)
+		{
+			this(n, 1.0);
+		}
+
+		/**
+		 * Construct a new model generator
+		 * @param n Size of grid (n x n)
+		 * @param probFailMax Scaling factor for failure probabilities (in [0,1])
+		 */
+		public GridModel(int n, double probFailMax)
 		{
 			this.n = n;
+			this.probFailMax = probFailMax;
 		}
 
 		// Methods for ModelInfo interface
@@ -247,7 +260,7 @@ public class MDPModelGenerator
 			}
 			else {
 				// We assume that failure is more likely towards the left part of the grid
-				double probFail = ((double) (n - x)) / n;
+				double probFail = probFailMax * (n - x) / n;
 				// Regardless of the action (i.e., for any i),
 				// transitions 0 and 1 correspond to non-failure and failure, respectively.
 				return offset == 0 ? 1 - probFail : probFail;
@@ -0,0 +1,380 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import parser.State;
+import parser.ast.DeclarationBool;
+import parser.ast.DeclarationInt;
+import parser.ast.DeclarationType;
+import prism.ModelGenerator;
+import prism.ModelInfo;
+import prism.PrismException;
+
+/**
+ * An index from states to integer indices, for use during explicit model construction,
+ * keyed on a bit-packed encoding of each state as a single {@code long}.
+ * The packing is derived from the variable declarations of the model
+ * (e.g. an integer variable with range -n..n uses ceil(log2(2n+1)) bits and a boolean uses 1),
+ * so this only applies to models whose variables are all bounded integers or booleans,
+ * with at most 63 bits in total.
+ * 
+ * The index itself is an open-addressed hash table (linear probing) over two primitive arrays
+ * (keys and values), so there are no per-entry objects, unlike for a {@code HashMap<State,Integer>}.
+ * Note that this only reduces the memory of the index: {@link ExplicitSparseModel} still keeps
+ * a {@code List<State>} of all states (which the {@code HashMap} would reference as keys).
+ * 
+ * Running the class compares memory and throughput with a {@code HashMap} on some generated models,
+ * measuring the memory of both indexes in the same way (as the change in used heap).
+ */
+public class PackedStateIndex
+{
+	// Marker for empty slots (never a valid key, since keys use at most 63 bits)
+	private static final long EMPTY = -1L;
+
+	// Number of variables
+	private int numVars;
+	// Lower bound, bit offset and bit width for each variable
+	private int[] lows;
+	private int[] shifts;
+	private int[] widths;
+	// Whether each variable is boolean
+	private boolean[] isBool;
+
+	// Hash table: keys and values
+	private long[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+
+	/**
+	 * Create an (empty) index for the states of a model.
+	 * Throws an exception if the states cannot be packed into 63 bits.
+	 * @param modelInfo Model info (e.g. a model generator)
+	 */
+	public PackedStateIndex(ModelInfo modelInfo) throws PrismException
+	{
+		numVars = modelInfo.getNumVars();
+		lows = new int[numVars];
+		shifts = new int[numVars];
+		widths = new int[numVars];
+		isBool = new boolean[numVars];
+		int shift = 0;
+		for (int i = 0; i < numVars; i++) {
+			DeclarationType declType = modelInfo.getVarDeclarationType(i);
+			int high;
+			if (declType instanceof DeclarationBool) {
+				isBool[i] = true;
+				lows[i] = 0;
+				high = 1;
+			} else if (declType instanceof DeclarationInt) {
+				lows[i] = ((DeclarationInt) declType).getLow().evaluateInt();
+				high = ((DeclarationInt) declType).getHigh().evaluateInt();
+			} else {
+				throw new PrismException("Cannot pack variable " + modelInfo.getVarName(i) + " (not a bounded integer or boolean)");
+			}
+			long range = (long) high - lows[i] + 1;
+			widths[i] = range <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(range - 1);
+			shifts[i] = shift;
+			shift += widths[i];
+			if (shift > 63) {
+				throw new PrismException("Cannot pack states into 63 bits");
+			}
+		}
+		clear(1024);
+	}
+
+	/**
+	 * Get the total number of bits used per state.
+	 */
+	public int getNumBits()
+	{
+		return numVars == 0 ? 0 : shifts[numVars - 1] + widths[numVars - 1];
+	}
+
+	/**
+	 * Encode a state as a {@code long}.
+	 */
+	public long pack(State state) throws PrismException
+	{
+		long key = 0;
+		Object[] varValues = state.varValues;
+		for (int i = 0; i < numVars; i++) {
+			long v = isBool[i] ? (((Boolean) varValues[i]).booleanValue() ? 1 : 0) : ((Integer) varValues[i]).intValue() - lows[i];
+			if (v < 0 || v >> widths[i] != 0) {
+				throw new PrismException("Value " + varValues[i] + " of variable " + i + " is out of range");
+			}
+			key |= v << shifts[i];
+		}
+		return key;
+	}
+
+	/**
+	 * Decode a state from a {@code long}.
+	 */
+	public State unpack(long key)
+	{
+		State state = new State(numVars);
+		for (int i = 0; i < numVars; i++) {
+			int v = (int) ((key >>> shifts[i]) & ((1L << widths[i]) - 1));
+			if (isBool[i]) {
+				state.setValue(i, v == 1);
+			} else {
+				state.setValue(i, v + lows[i]);
+			}
+		}
+		return state;
+	}
+
+	// Index operations
+
+	/**
+	 * Get the number of states in the index.
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get the index of a (packed) state, or -1 if not present.
+	 */
+	public int get(long key)
+	{
+		int slot = slot(key);
+		while (true) {
+			long cur = keys[slot];
+			if (cur == key) {
+				return values[slot];
+			}
+			if (cur == EMPTY) {
+				return -1;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Get the index of a (packed) state, adding it (with index {@code size()}) if not present.
+	 * So, the state was new if the result is equal to {@code size() - 1} afterwards.
+	 */
+	public int getOrAdd(long key)
+	{
+		int slot = slot(key);
+		while (true) {
+			long cur = keys[slot];
+			if (cur == key) {
+				return values[slot];
+			}
+			if (cur == EMPTY) {
+				break;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = size;
+		size++;
+		// Keep the load factor at most 1/2
+		if (2 * size > keys.length) {
+			rehash(2 * keys.length);
+		}
+		return size - 1;
+	}
+
+	/**
+	 * Get the index of a state (or -1 if not present).
+	 */
+	public int get(State state) throws PrismException
+	{
+		return get(pack(state));
+	}
+
+	/**
+	 * Get the (packed) states in the index, in order of their indices.
+	 */
+	public long[] getKeysInOrder()
+	{
+		long[] result = new long[size];
+		for (int j = 0; j < keys.length; j++) {
+			if (keys[j] != EMPTY) {
+				result[values[j]] = keys[j];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get the memory used by the hash table, in bytes (excluding object headers).
+	 */
+	public long getTableBytes()
+	{
+		return 12L * keys.length;
+	}
+
+	private void clear(int capacity)
+	{
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		values = new int[capacity];
+		mask = capacity - 1;
+		size = 0;
+	}
+
+	private void rehash(int capacity)
+	{
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		int oldSize = size;
+		clear(capacity);
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] != EMPTY) {
+				int slot = slot(oldKeys[j]);
+				while (keys[slot] != EMPTY) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[j];
+				values[slot] = oldValues[j];
+			}
+		}
+		size = oldSize;
+	}
+
+	private int slot(long key)
+	{
+		// Mix the bits (packed keys are far from uniformly distributed)
+		long z = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+		return (int) (z ^ (z >>> 33)) & mask;
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private PackedStateIndex()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new PackedStateIndex().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Warm up
+			compare(null, new DTMCModelGenerator.RandomWalk(10000, 0.6));
+			for (int n : new int[] { 100000, 1000000 }) {
+				compare("RandomWalk(" + n + ")", new DTMCModelGenerator.RandomWalk(n, 0.6));
+			}
+			for (int n : new int[] { 300, 1000 }) {
+				compare("GridModel(" + n + ")", new MDPModelGenerator.GridModel(n));
+			}
+
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Compare a packed index with a {@code HashMap<State,Integer>}
+	 * on the reachable states of a model, and time model construction using each.
+	 */
+	private static void compare(String name, ModelGenerator<Double> modelGen) throws PrismException
+	{
+		long start = System.nanoTime();
+		ExplicitSparseModel modelMap = ExplicitSparseModel.build(modelGen, false);
+		long timeBuildMap = System.nanoTime() - start;
+		start = System.nanoTime();
+		ExplicitSparseModel modelPacked = ExplicitSparseModel.build(modelGen, true);
+		long timeBuildPacked = System.nanoTime() - start;
+		List<State> states = modelPacked.getStates();
+		int numStates = states.size();
+		boolean same = Arrays.equals(modelMap.getSuccessors(), modelPacked.getSuccessors());
+
+		// Insert all states, then look them all up (using fresh copies of the states for lookups)
+		State[] copies = new State[numStates];
+		for (int s = 0; s < numStates; s++) {
+			copies[s] = new State(states.get(s));
+		}
+		long memBefore = usedMemory();
+		start = System.nanoTime();
+		HashMap<State, Integer> map = new HashMap<>();
+		for (int s = 0; s < numStates; s++) {
+			map.put(states.get(s), s);
+		}
+		long timeInsertMap = System.nanoTime() - start;
+		long memMap = usedMemory() - memBefore;
+		start = System.nanoTime();
+		long sum = 0;
+		for (int s = 0; s < numStates; s++) {
+			sum += map.get(copies[s]);
+		}
+		long timeLookupMap = System.nanoTime() - start;
+
+		memBefore = usedMemory();
+		start = System.nanoTime();
+		PackedStateIndex index = new PackedStateIndex(modelGen);
+		for (int s = 0; s < numStates; s++) {
+			index.getOrAdd(index.pack(states.get(s)));
+		}
+		long timeInsertPacked = System.nanoTime() - start;
+		long memPacked = usedMemory() - memBefore;
+		start = System.nanoTime();
+		for (int s = 0; s < numStates; s++) {
+			sum -= index.get(index.pack(copies[s]));
+		}
+		long timeLookupPacked = System.nanoTime() - start;
+
+		if (name == null) {
+			return;
+		}
+		System.out.println(name + ": " + numStates + " states, " + index.getNumBits() + " bits/state" + (same && sum == 0 ? "" : " (MISMATCH)"));
+		System.out.printf("  HashMap: %.1f bytes/state, insert %.1f ns/state, lookup %.1f ns/state, model build %d ms%n", (double) memMap / numStates, (double) timeInsertMap / numStates, (double) timeLookupMap / numStates, timeBuildMap / 1000000);
+		System.out.printf("  Packed:  %.1f bytes/state (table arrays: %.1f), insert %.1f ns/state, lookup %.1f ns/state, model build %d ms%n", (double) memPacked / numStates, (double) index.getTableBytes() / numStates, (double) timeInsertPacked / numStates, (double) timeLookupPacked / numStates, timeBuildPacked / 1000000);
+		System.out.println("  (index memory only, as measured by used heap: in both cases, the model also stores the State objects)");
+		// Keep the structures live until after measurement
+		if (map.size() != index.size()) {
+			System.out.println("  (size mismatch)");
+		}
+	}
+
+	/**
+	 * Heap memory currently in use (after requesting garbage collection).
+	 */
+	private static long usedMemory()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,648 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleFunction;
+
+import prism.ModelGenerator;
+import prism.ModelType;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+
+/**
+ * An example class showing parametric model checking for parameter sweeps:
+ * the probability of reaching a label in a DTMC is computed once, as a rational function
+ * of a single model parameter, and then evaluated cheaply for each parameter value.
+ * 
+ * The model is given as a family of model generators (one per parameter value)
+ * which must all have the same reachable state space and transition structure,
+ * and whose transition probabilities must be affine in the parameter
+ * (like {@code p} and {@code 1-p} in {@link DTMCModelGenerator.RandomWalk}).
+ * The affine coefficients are obtained by querying the generators at a few parameter values.
+ * States may have several choices in the generator (e.g. from unsynchronised modules):
+ * these are combined into one when the model is built, as for any DTMC
+ * (and both the state elimination and numerical solution below take all transitions of a state).
+ * The rational function is then computed by state elimination, using exact arithmetic
+ * (polynomials with {@code BigInteger} coefficients, taking the double-valued transition
+ * probabilities as exact values), so there is no loss of precision however many states are eliminated.
+ * It is evaluated in double precision when a rounding error bound shows that this is accurate,
+ * and exactly otherwise. If the probabilities are not affine in the parameter, or the function
+ * grows beyond a maximum degree, evaluation falls back to numerical solution for each parameter value.
+ * 
+ * Running the class benchmarks this against model checking each parameter value in PRISM.
+ */
+public class ParametricReachability
+{
+	// Default maximum degree of rational functions before falling back to numerical solution
+	public static final int DEFAULT_MAX_DEGREE = 200;
+	// Convergence threshold for numerical solution
+	private static final double EPSILON = 1.0e-10;
+
+	// Family of model generators, indexed by parameter value
+	private DoubleFunction<ModelGenerator<Double>> modelGens;
+	// Target label
+	private String label;
+	// Model structure
+	private ExplicitSparseModel model;
+	// Affine transition probabilities: coeffs0[j] + coeffs1[j] * p
+	private double[] coeffs0;
+	private double[] coeffs1;
+	// States with probability 0/1 (independent of parameter values within the range)
+	private BitSet no;
+	private BitSet yes;
+	// Are the transition probabilities affine in the parameter?
+	private boolean affine;
+	// Reachability probability (from the initial state) as a function of the parameter,
+	// or null if falling back to numerical solution
+	private RationalFunction function;
+
+	/**
+	 * Compute the probability of reaching a label as a function of a parameter.
+	 * Parameter values should lie in the open interval ({@code lower}, {@code upper}),
+	 * across which the model structure must not change.
+	 * @param modelGens Model generators, as a function of the parameter
+	 * @param label Target label
+	 * @param lower Lower bound of parameter range
+	 * @param upper Upper bound of parameter range
+	 * @param maxDegree Maximum degree of rational function before falling back to numerical solution
+	 */
+	public ParametricReachability(DoubleFunction<ModelGenerator<Double>> modelGens, String label, double lower, double upper, int maxDegree) throws PrismException
+	{
+		this.modelGens = modelGens;
+		this.label = label;
+		// Build the model structure once, and get affine coefficients from two other parameter values
+		double p0 = (lower + upper) / 2;
+		double p1 = lower + (upper - lower) / 4;
+		double p2 = lower + 3 * (upper - lower) / 4;
+		ModelGenerator<Double> modelGen = modelGens.apply(p0);
+		model = ExplicitSparseModel.build(modelGen);
+		if (model.getModelType() != ModelType.DTMC) {
+			throw new PrismException("Parametric reachability is only implemented for DTMCs");
+		}
+		double[] probs0 = model.getProbabilities();
+		double[] probs1 = probabilitiesFor(p1);
+		double[] probs2 = probabilitiesFor(p2);
+		int numTransitions = model.getNumTransitions();
+		coeffs0 = new double[numTransitions];
+		coeffs1 = new double[numTransitions];
+		affine = true;
+		for (int j = 0; j < numTransitions; j++) {
+			coeffs1[j] = (probs2[j] - probs1[j]) / (p2 - p1);
+			coeffs0[j] = probs1[j] - coeffs1[j] * p1;
+			if (Math.abs(coeffs0[j] + coeffs1[j] * p0 - probs0[j]) > 1.0e-12) {
+				affine = false;
+			}
+		}
+		// Qualitative analysis, on the (fixed) graph structure
+		BitSet target = model.getLabelStates(modelGen, label);
+		model.buildReverseIndex();
+		GraphPrecomputation precomp = new GraphPrecomputation(GraphPrecomputation.Mode.SEQUENTIAL);
+		no = precomp.prob0(model, target);
+		yes = precomp.prob1(model, target, no);
+		// Compute the rational function (unless probabilities are not affine), and check it at a few points
+		function = affine ? eliminateStates(maxDegree) : null;
+		if (function != null) {
+			for (double p : new double[] { p0, p1, p2 }) {
+				double exact = solveNumerically(probabilitiesFor(p));
+				if (Math.abs(function.evaluate(p) - exact) > 1.0e-6) {
+					function = null;
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Is the result available as a rational function (rather than by numerical solution)?
+	 */
+	public boolean hasFunction()
+	{
+		return function != null;
+	}
+
+	/**
+	 * Are the transition probabilities affine in the parameter
+	 * (if not, the result is always computed by numerical solution)?
+	 */
+	public boolean isAffine()
+	{
+		return affine;
+	}
+
+	/**
+	 * Get the result as a rational function (null if not available).
+	 */
+	public RationalFunction getFunction()
+	{
+		return function;
+	}
+
+	/**
+	 * Get the probability of reaching the target (from the initial state) for parameter value {@code p}.
+	 */
+	public double evaluate(double p) throws PrismException
+	{
+		if (function != null) {
+			double val = function.evaluate(p);
+			// Guard against numerical problems (e.g. near poles introduced by cancellation errors)
+			if (val >= -EPSILON && val <= 1 + EPSILON) {
+				return val;
+			}
+		}
+		return solveNumerically(probabilitiesFor(p));
+	}
+
+	/**
+	 * Get the transition probabilities for parameter value {@code p},
+	 * re-weighting the (already built) model structure.
+	 */
+	private double[] probabilitiesFor(double p) throws PrismException
+	{
+		return model.reweight(modelGens.apply(p)).getProbabilities();
+	}
+
+	/**
+	 * Compute reachability probabilities numerically (Gauss-Seidel) for given transition probabilities,
+	 * returning the value for the initial state.
+	 */
+	private double solveNumerically(double[] probs)
+	{
+		int numStates = model.getNumStates();
+		int[] choiceStarts = model.getChoiceStarts();
+		int[] transStarts = model.getTransStarts();
+		int[] succs = model.getSuccessors();
+		double[] soln = new double[numStates];
+		for (int s = yes.nextSetBit(0); s >= 0; s = yes.nextSetBit(s + 1)) {
+			soln[s] = 1.0;
+		}
+		double maxDiff;
+		do {
+			maxDiff = 0.0;
+			for (int s = 0; s < numStates; s++) {
+				if (yes.get(s) || no.get(s)) {
+					continue;
+				}
+				double val = 0.0;
+				for (int j = transStarts[choiceStarts[s]]; j < transStarts[choiceStarts[s + 1]]; j++) {
+					val += probs[j] * soln[succs[j]];
+				}
+				maxDiff = Math.max(maxDiff, Math.abs(val - soln[s]));
+				soln[s] = val;
+			}
+		} while (maxDiff > EPSILON);
+		return soln[0];
+	}
+
+	/**
+	 * Compute the reachability probability for the initial state (state 0) as a rational function,
+	 * by eliminating all other states whose probability is not already known to be 0 or 1.
+	 * The outgoing edges of each state are kept as integer polynomials over a common denominator
+	 * (with common integer factors divided out), which limits the growth in degree and coefficient size.
+	 * Returns null if the maximum degree is exceeded.
+	 */
+	private RationalFunction eliminateStates(int maxDegree)
+	{
+		if (yes.get(0)) {
+			return RationalFunction.constant(1);
+		}
+		if (no.get(0)) {
+			return RationalFunction.constant(0);
+		}
+		int numStates = model.getNumStates();
+		int[] choiceStarts = model.getChoiceStarts();
+		int[] transStarts = model.getTransStarts();
+		int[] succs = model.getSuccessors();
+		// Edges between "maybe" states, plus edges to a single (virtual) target state;
+		// edges to "no" states can be dropped since they contribute nothing.
+		// For each state, we store numerator polynomials for each successor, and a shared denominator.
+		int yesState = numStates;
+		List<Map<Integer, BigInteger[]>> nums = new ArrayList<>(numStates);
+		BigInteger[][] dens = new BigInteger[numStates][];
+		List<HashSet<Integer>> in = new ArrayList<>(numStates + 1);
+		for (int s = 0; s <= numStates; s++) {
+			nums.add(new HashMap<>());
+			in.add(new HashSet<>());
+		}
+		for (int s = 0; s < numStates; s++) {
+			dens[s] = new BigInteger[] { BigInteger.ONE };
+			if (yes.get(s) || no.get(s)) {
+				continue;
+			}
+			// Coefficients as exact decimals, scaled to integers by a common power of 10
+			Map<Integer, BigDecimal[]> row = new HashMap<>();
+			int scale = 0;
+			for (int j = transStarts[choiceStarts[s]]; j < transStarts[choiceStarts[s + 1]]; j++) {
+				int t = yes.get(succs[j]) ? yesState : succs[j];
+				if (t != yesState && no.get(t)) {
+					continue;
+				}
+				BigDecimal[] poly = new BigDecimal[] { new BigDecimal(coeffs0[j]), new BigDecimal(coeffs1[j]) };
+				row.merge(t, poly, (f, g) -> new BigDecimal[] { f[0].add(g[0]), f[1].add(g[1]) });
+				scale = Math.max(scale, Math.max(poly[0].scale(), poly[1].scale()));
+			}
+			for (Map.Entry<Integer, BigDecimal[]> e : row.entrySet()) {
+				BigDecimal[] poly = e.getValue();
+				nums.get(s).put(e.getKey(), new BigInteger[] { poly[0].movePointRight(scale).toBigIntegerExact(), poly[1].movePointRight(scale).toBigIntegerExact() });
+				in.get(e.getKey()).add(s);
+			}
+			dens[s] = new BigInteger[] { BigInteger.TEN.pow(scale) };
+			normalise(nums.get(s), dens, s);
+		}
+		// Eliminate states, in reverse order of exploration
+		for (int s = numStates - 1; s > 0; s--) {
+			if (yes.get(s) || no.get(s)) {
+				continue;
+			}
+			Map<Integer, BigInteger[]> numsS = nums.get(s);
+			BigInteger[] loop = numsS.remove(s);
+			in.get(s).remove(s);
+			// Probability of leaving s (over the denominator for s)
+			BigInteger[] leave = loop == null ? dens[s] : polySubtract(dens[s], loop);
+			for (int u : in.get(s)) {
+				// Edges from u are: nums(u,v) / den(u) + nums(u,s) * nums(s,v) / (den(u) * leave)
+				Map<Integer, BigInteger[]> numsU = nums.get(u);
+				BigInteger[] toS = numsU.remove(s);
+				for (Map.Entry<Integer, BigInteger[]> e : numsU.entrySet()) {
+					e.setValue(polyMultiply(e.getValue(), leave));
+				}
+				for (Map.Entry<Integer, BigInteger[]> e : numsS.entrySet()) {
+					int v = e.getKey();
+					numsU.merge(v, polyMultiply(toS, e.getValue()), ParametricReachability::polyAdd);
+					in.get(v).add(u);
+				}
+				dens[u] = polyMultiply(dens[u], leave);
+				if (dens[u].length - 1 > maxDegree) {
+					return null;
+				}
+				normalise(numsU, dens, u);
+			}
+			for (int v : numsS.keySet()) {
+				in.get(v).remove(s);
+			}
+			numsS.clear();
+			in.get(s).clear();
+		}
+		// Only the initial state remains: P(0->yes) / (1 - P(0->0))
+		BigInteger[] toYes = nums.get(0).get(yesState);
+		if (toYes == null) {
+			return RationalFunction.constant(0);
+		}
+		BigInteger[] loop = nums.get(0).get(0);
+		return new RationalFunction(toYes, loop == null ? dens[0] : polySubtract(dens[0], loop));
+	}
+
+	/**
+	 * Divide the numerators and denominator for state {@code u} by the gcd of all their coefficients.
+	 */
+	private static void normalise(Map<Integer, BigInteger[]> numsU, BigInteger[][] dens, int u)
+	{
+		BigInteger gcd = BigInteger.ZERO;
+		for (BigInteger d : dens[u]) {
+			gcd = gcd.gcd(d);
+		}
+		for (BigInteger[] num : numsU.values()) {
+			for (BigInteger a : num) {
+				gcd = gcd.gcd(a);
+			}
+		}
+		if (gcd.signum() == 0 || gcd.equals(BigInteger.ONE)) {
+			return;
+		}
+		for (int i = 0; i < dens[u].length; i++) {
+			dens[u][i] = dens[u][i].divide(gcd);
+		}
+		for (BigInteger[] num : numsU.values()) {
+			for (int i = 0; i < num.length; i++) {
+				num[i] = num[i].divide(gcd);
+			}
+		}
+	}
+
+	// Polynomial arithmetic (integer coefficients stored lowest degree first)
+
+	private static BigInteger[] polyAdd(BigInteger[] a, BigInteger[] b)
+	{
+		BigInteger[] res = Arrays.copyOf(a, Math.max(a.length, b.length));
+		for (int i = 0; i < res.length; i++) {
+			res[i] = i >= a.length ? b[i] : i >= b.length ? a[i] : a[i].add(b[i]);
+		}
+		return res;
+	}
+
+	private static BigInteger[] polySubtract(BigInteger[] a, BigInteger[] b)
+	{
+		BigInteger[] res = Arrays.copyOf(a, Math.max(a.length, b.length));
+		for (int i = 0; i < res.length; i++) {
+			res[i] = i >= a.length ? b[i].negate() : i >= b.length ? a[i] : a[i].subtract(b[i]);
+		}
+		return res;
+	}
+
+	private static BigInteger[] polyMultiply(BigInteger[] a, BigInteger[] b)
+	{
+		BigInteger[] res = new BigInteger[a.length + b.length - 1];
+		Arrays.fill(res, BigInteger.ZERO);
+		for (int i = 0; i < a.length; i++) {
+			if (a[i].signum() != 0) {
+				for (int j = 0; j < b.length; j++) {
+					res[i + j] = res[i + j].add(a[i].multiply(b[j]));
+				}
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * A univariate rational function (ratio of two polynomials) with integer coefficients.
+	 * For evaluation, a scaled double-precision copy of the coefficients is also kept.
+	 */
+	public static class RationalFunction
+	{
+		// Relative error (bound) accepted for double-precision evaluation
+		private static final double MAX_REL_ERROR = 1.0e-12;
+
+		// Coefficients of numerator and denominator (lowest degree first)
+		private BigInteger[] num;
+		private BigInteger[] den;
+		// The same, scaled by a common power of 2 and split into double-double pairs (hi + lo)
+		private double[][] numDouble;
+		private double[][] denDouble;
+
+		private RationalFunction(BigInteger[] num, BigInteger[] den)
+		{
+			this.num = trim(num);
+			this.den = trim(den);
+			// Scale so that the largest coefficient is around 2^500 (scaling both does not change the ratio)
+			int maxBits = 0;
+			for (BigInteger a : this.num) {
+				maxBits = Math.max(maxBits, a.bitLength());
+			}
+			for (BigInteger a : this.den) {
+				maxBits = Math.max(maxBits, a.bitLength());
+			}
+			numDouble = toDoubleDoubles(this.num, maxBits - 500);
+			denDouble = toDoubleDoubles(this.den, maxBits - 500);
+		}
+
+		public static RationalFunction constant(long c)
+		{
+			return new RationalFunction(new BigInteger[] { BigInteger.valueOf(c) }, new BigInteger[] { BigInteger.ONE });
+		}
+
+		public int degree()
+		{
+			return Math.max(num.length, den.length) - 1;
+		}
+
+		/**
+		 * Evaluate the function at {@code p}: using compensated Horner's method in double precision if
+		 * a bound on the rounding error shows that this is accurate enough, and exactly otherwise.
+		 */
+		public double evaluate(double p)
+		{
+			double[] n = compensatedHorner(numDouble, p);
+			double[] d = compensatedHorner(denDouble, p);
+			if (n[1] <= MAX_REL_ERROR * Math.abs(n[0]) && d[1] <= MAX_REL_ERROR * Math.abs(d[0])) {
+				return n[0] / d[0];
+			}
+			return evaluateExactly(p);
+		}
+
+		/**
+		 * Evaluate the function at {@code p} exactly (then rounded to a double).
+		 */
+		public double evaluateExactly(double p)
+		{
+			// p = m / 2^k exactly, so each polynomial times 2^(k*deg) is an integer
+			BigInteger m = BigInteger.ZERO;
+			int k = 0;
+			if (p != 0.0) {
+				k = 52 - Math.getExponent(p);
+				m = BigInteger.valueOf((long) Math.scalb(p, k));
+				if (k < 0) {
+					m = m.shiftLeft(-k);
+					k = 0;
+				}
+			}
+			int deg = degree();
+			BigInteger numVal = hornerExact(num, m, k, deg);
+			BigInteger denVal = hornerExact(den, m, k, deg);
+			return new BigDecimal(numVal).divide(new BigDecimal(denVal), MathContext.DECIMAL128).doubleValue();
+		}
+
+		@Override
+		public String toString()
+		{
+			return "(" + polyToString(num) + ") / (" + polyToString(den) + ")";
+		}
+
+		/**
+		 * Compensated Horner's method (Graillat, Langlois, Louvet) on double-double coefficients,
+		 * returning the value and a bound on its absolute error. The result is as accurate
+		 * as if computed in twice the working precision, so the bound is of order
+		 * (deg*u)^2 * sum|a_i||p|^i, where u is the unit roundoff.
+		 */
+		private static double[] compensatedHorner(double[][] a, double p)
+		{
+			double[] hi = a[0];
+			double[] lo = a[1];
+			int n = hi.length - 1;
+			double val = hi[n];
+			double corr = lo[n];
+			double absVal = Math.abs(hi[n]);
+			double absP = Math.abs(p);
+			for (int i = n - 1; i >= 0; i--) {
+				// Error-free transformations of val * p and (val * p) + hi[i]
+				double prod = val * p;
+				double prodErr = Math.fma(val, p, -prod);
+				double sum = prod + hi[i];
+				double b = sum - prod;
+				double sumErr = (prod - (sum - b)) + (hi[i] - b);
+				val = sum;
+				corr = corr * p + (prodErr + sumErr + lo[i]);
+				absVal = absVal * absP + Math.abs(hi[i]);
+			}
+			double gamma = 4.0 * (n + 1) * Math.ulp(1.0);
+			return new double[] { val + corr, gamma * gamma * absVal };
+		}
+
+		/**
+		 * Compute sum_i a_i * m^i * 2^(k*(deg-i)), i.e., the polynomial at m/2^k times 2^(k*deg).
+		 */
+		private static BigInteger hornerExact(BigInteger[] a, BigInteger m, int k, int deg)
+		{
+			int n = a.length - 1;
+			BigInteger val = a[n].shiftLeft(k * (deg - n));
+			for (int i = n - 1; i >= 0; i--) {
+				val = val.multiply(m).add(a[i].shiftLeft(k * (deg - i)));
+			}
+			return val;
+		}
+
+		/**
+		 * Convert integer coefficients, multiplied by 2^-shift, to pairs of doubles
+		 * whose sum is accurate to around 106 bits (stored as arrays hi, lo).
+		 */
+		private static double[][] toDoubleDoubles(BigInteger[] a, int shift)
+		{
+			double[][] res = new double[2][a.length];
+			for (int i = 0; i < a.length; i++) {
+				// Keep the top 120 bits, split into a 53-bit high part and the remainder
+				int drop = Math.max(0, a[i].bitLength() - 120);
+				BigInteger top = a[i].shiftRight(drop);
+				int split = Math.max(0, top.bitLength() - 53);
+				BigInteger high = top.shiftRight(split);
+				res[0][i] = Math.scalb(high.doubleValue(), split + drop - shift);
+				res[1][i] = Math.scalb(top.subtract(high.shiftLeft(split)).doubleValue(), drop - shift);
+			}
+			return res;
+		}
+
+		private static BigInteger[] trim(BigInteger[] coeffs)
+		{
+			int n = coeffs.length;
+			while (n > 1 && coeffs[n - 1].signum() == 0) {
+				n--;
+			}
+			return n == coeffs.length ? coeffs : Arrays.copyOf(coeffs, n);
+		}
+
+		private static String polyToString(BigInteger[] a)
+		{
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < a.length; i++) {
+				if (a[i].signum() != 0 || a.length == 1) {
+					if (sb.length() > 0) {
+						sb.append(" + ");
+					}
+					sb.append(a[i]);
+					if (i > 0) {
+						sb.append("*p" + (i > 1 ? "^" + i : ""));
+					}
+				}
+			}
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private ParametricReachability()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new ParametricReachability().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+
+			// P=?[F "right"] for RandomWalk(n, p), sweeping p over (0,1)
+			for (int n : new int[] { 5, 10, 20 }) {
+				benchmark(prism, "RandomWalk(" + n + ", p)", p -> new DTMCModelGenerator.RandomWalk(n, p));
+			}
+			// and for RandomWalk(5, p*p), whose probabilities are not affine in p
+			benchmark(prism, "RandomWalk(5, p*p)", p -> new DTMCModelGenerator.RandomWalk(5, p * p));
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Compare parametric evaluation of P=?[F "right"] for a family of models against PRISM,
+	 * for parameter values in (0,1).
+	 */
+	private static void benchmark(Prism prism, String name, DoubleFunction<ModelGenerator<Double>> modelGens) throws PrismException
+	{
+		long start = System.nanoTime();
+		ParametricReachability param = new ParametricReachability(modelGens, "right", 0.0, 1.0, DEFAULT_MAX_DEGREE);
+		long timeSetup = System.nanoTime() - start;
+		System.out.println(name + ", P=?[F \"right\"]:");
+		if (param.hasFunction()) {
+			System.out.println("Rational function of degree " + param.getFunction().degree() + (param.getFunction().degree() <= 10 ? ": " + param.getFunction() : ""));
+		} else if (!param.isAffine()) {
+			System.out.println("Probabilities not affine in parameter; falling back to numerical solution");
+		} else {
+			System.out.println("Rational function too large; falling back to numerical solution");
+		}
+
+		// Per-point loop in PRISM (for a smaller number of points)
+		int numPrism = 100;
+		double[] resultsPrism = new double[numPrism];
+		start = System.nanoTime();
+		for (int i = 0; i < numPrism; i++) {
+			prism.loadModelGenerator(modelGens.apply((i + 1.0) / (numPrism + 1)));
+			resultsPrism[i] = (Double) prism.modelCheck("P=?[F \"right\"]").getResult();
+		}
+		long timePrism = System.nanoTime() - start;
+		double maxDiff = 0.0;
+		for (int i = 0; i < numPrism; i++) {
+			maxDiff = Math.max(maxDiff, Math.abs(param.evaluate((i + 1.0) / (numPrism + 1)) - resultsPrism[i]));
+		}
+
+		// Parametric evaluation, for many points
+		int numParam = 100000;
+		double sum = 0.0;
+		start = System.nanoTime();
+		for (int i = 0; i < numParam; i++) {
+			sum += param.evaluate((i + 1.0) / (numParam + 1));
+		}
+		long timeParam = System.nanoTime() - start;
+
+		System.out.println("Max difference from PRISM: " + maxDiff);
+		System.out.printf("PRISM: %.1f us per point (%d points)%n", timePrism / 1000.0 / numPrism, numPrism);
+		System.out.printf("Parametric: %.1f ms to compute function, then %.3f us per point (%d points, mean %.4f)%n%n", timeSetup / 1000000.0, timeParam / 1000.0 / numParam, numParam, sum / numParam);
+	}
+}
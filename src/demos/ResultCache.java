@@ -0,0 +1,554 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import parser.Values;
+import parser.ast.ModulesFile;
+import parser.ast.PropertiesFile;
+import parser.ast.Property;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+import prism.PrismSettings;
+import prism.Result;
+
+/**
+ * A persistent store of model checking results, so that repeated runs of the same queries
+ * (same model, property, constant values and relevant settings) can reuse earlier results.
+ * 
+ * Each query is identified by a SHA-256 hash of a canonical description of the model
+ * (e.g. its parsed, pretty-printed source, or a model generator's class and parameters),
+ * the property text and the values of the undefined constants that the property uses
+ * (so that other constants in the properties file do not cause misses). A second hash covers the settings that
+ * can affect the result (engine, solution methods, convergence criteria, etc.):
+ * a stored result whose settings hash differs from the current one is treated as invalid
+ * and is replaced when the query is re-run.
+ * 
+ * Results are kept in an append-only file, accessed via memory mapping, consisting of a header
+ * (including the length of the committed data) followed by records (query hash, settings hash, result).
+ * Each new record is flushed to disk before the length in the header is updated (and flushed),
+ * so a record only counts as committed once it has been written in full.
+ * The file is locked while opening it and while appending, so several processes can share a cache:
+ * before appending, any records committed by others since the file was opened (or last appended to)
+ * are added to the index. The index (from query hash to record) is built by scanning the file;
+ * later records for the same query take precedence. Results of type boolean, integer and double
+ * are stored as such; anything else is stored (and returned) as a string.
+ * 
+ * Running the class repeats the queries of {@link ModelCheckFromFiles} with a cache.
+ */
+public class ResultCache implements AutoCloseable
+{
+	// File format: magic number, version and header size (magic, version, end of data)
+	private static final int MAGIC = 0x50524343;
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 16;
+	// Size of hashes (SHA-256)
+	private static final int HASH_BYTES = 32;
+	// Size of the smallest possible record (length, hashes, type and a one-byte value)
+	private static final int MIN_RECORD_BYTES = 4 + 2 * HASH_BYTES + 1 + 1;
+	// Result types
+	private static final byte TYPE_BOOLEAN = 0;
+	private static final byte TYPE_INTEGER = 1;
+	private static final byte TYPE_DOUBLE = 2;
+	private static final byte TYPE_STRING = 3;
+
+	// Settings included in the settings hash, grouped by type
+	private static final String[] STRING_SETTINGS = { PrismSettings.PRISM_ENGINE, PrismSettings.PRISM_LIN_EQ_METHOD, PrismSettings.PRISM_MDP_SOLN_METHOD, PrismSettings.PRISM_TERM_CRIT };
+	private static final String[] DOUBLE_SETTINGS = { PrismSettings.PRISM_LIN_EQ_METHOD_PARAM, PrismSettings.PRISM_TERM_CRIT_PARAM };
+	private static final String[] INTEGER_SETTINGS = { PrismSettings.PRISM_MAX_ITERS };
+	private static final String[] BOOLEAN_SETTINGS = { PrismSettings.PRISM_PRECOMPUTATION, PrismSettings.PRISM_FAIRNESS };
+
+	// File and mapped buffer
+	private File file;
+	private RandomAccessFile raf;
+	private FileChannel channel;
+	private MappedByteBuffer buf;
+	// End of committed data
+	private int end;
+	// Index: query hash (as a string) to record offset
+	private HashMap<String, Integer> index = new HashMap<>();
+
+	// Statistics
+	private long numHits;
+	private long numMisses;
+	private long numInvalidations;
+
+	/**
+	 * Open a result cache, creating the file if it does not exist.
+	 */
+	public ResultCache(File file) throws PrismException
+	{
+		this.file = file;
+		try {
+			raf = new RandomAccessFile(file, "rw");
+			channel = raf.getChannel();
+			FileLock lock = channel.lock();
+			try {
+				if (raf.length() == 0) {
+					map(4096);
+					buf.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, HEADER_BYTES);
+					buf.force();
+					end = HEADER_BYTES;
+				} else {
+					if (raf.length() >= HEADER_BYTES) {
+						map((int) raf.length());
+					}
+					if (raf.length() < HEADER_BYTES || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+						throw new PrismException("\"" + file + "\" is not a result cache file");
+					}
+					end = HEADER_BYTES;
+					readNewRecords();
+				}
+			} finally {
+				lock.release();
+			}
+		} catch (FileNotFoundException e) {
+			throw new PrismException("Could not open result cache \"" + file + "\"");
+		} catch (IOException e) {
+			throw new PrismException("Could not open result cache \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * (Re)map the file, with the given size.
+	 */
+	private void map(int size) throws IOException
+	{
+		if (raf.length() < size) {
+			raf.setLength(size);
+		}
+		buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+	}
+
+	/**
+	 * Add any records committed since the end of data last seen to the index
+	 * (all of them, when the file is opened). The file should be locked.
+	 */
+	private void readNewRecords() throws IOException, PrismException
+	{
+		long newEnd = buf.getLong(8);
+		if (newEnd < end || newEnd > raf.length()) {
+			throw new PrismException("Result cache \"" + file + "\" is corrupt (bad end of data " + newEnd + ")");
+		}
+		if (newEnd > buf.capacity()) {
+			map((int) raf.length());
+		}
+		int pos = end;
+		while (pos < newEnd) {
+			int length = buf.getInt(pos);
+			if (length < MIN_RECORD_BYTES || length > newEnd - pos) {
+				throw new PrismException("Result cache \"" + file + "\" is corrupt (bad record length " + length + " at " + pos + ")");
+			}
+			index.put(hashToString(pos + 4), pos);
+			pos += length;
+		}
+		end = (int) newEnd;
+	}
+
+	// Keys
+
+	/**
+	 * Get a canonical description of a model from a file (its pretty-printed form, which
+	 * ignores formatting and comments, plus the values of any constants).
+	 */
+	public static String getModelKey(ModulesFile modulesFile)
+	{
+		return "modulesfile:" + modulesFile + ";" + valuesToString(modulesFile.getConstantValues());
+	}
+
+	/**
+	 * Get a canonical description of a model defined by a model generator:
+	 * its class, plus a string describing its parameters (which the caller must provide).
+	 */
+	public static String getModelKey(Object modelGen, String params)
+	{
+		return "generator:" + modelGen.getClass().getName() + ";" + params;
+	}
+
+	/**
+	 * Get the hash identifying a query (a property of a model, with the values of the undefined constants it uses).
+	 */
+	public static byte[] getQueryHash(String modelKey, PropertiesFile propertiesFile, Property property) throws PrismException
+	{
+		Values values = new Values();
+		for (String name : propertiesFile.getUndefinedConstantsUsedInProperty(property)) {
+			values.addValue(name, propertiesFile.getConstantValues().getValueOf(name));
+		}
+		StringBuilder sb = new StringBuilder();
+		appendField(sb, modelKey);
+		appendField(sb, property.toString());
+		appendField(sb, valuesToString(values));
+		return sha256(sb.toString());
+	}
+
+	/**
+	 * Get the hash of the settings which can affect results.
+	 */
+	public static byte[] getSettingsHash(PrismSettings settings) throws PrismException
+	{
+		StringBuilder sb = new StringBuilder();
+		for (String key : STRING_SETTINGS) {
+			appendField(sb, key + "=" + settings.getString(key));
+		}
+		for (String key : DOUBLE_SETTINGS) {
+			appendField(sb, key + "=" + settings.getDouble(key));
+		}
+		for (String key : INTEGER_SETTINGS) {
+			appendField(sb, key + "=" + settings.getInteger(key));
+		}
+		for (String key : BOOLEAN_SETTINGS) {
+			appendField(sb, key + "=" + settings.getBoolean(key));
+		}
+		return sha256(sb.toString());
+	}
+
+	/**
+	 * Constant values as a string, sorted by name (so independent of the order they were defined in).
+	 */
+	private static String valuesToString(Values values)
+	{
+		if (values == null) {
+			return "";
+		}
+		List<String> list = new ArrayList<>();
+		for (int i = 0; i < values.getNumValues(); i++) {
+			list.add(values.getName(i) + "=" + values.getValue(i));
+		}
+		Collections.sort(list);
+		return String.join(",", list);
+	}
+
+	/**
+	 * Append a field to a string, prefixed by its length (so that field boundaries are unambiguous).
+	 */
+	private static void appendField(StringBuilder sb, String field)
+	{
+		sb.append(field.length()).append(':').append(field);
+	}
+
+	private static byte[] sha256(String s) throws PrismException
+	{
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new PrismException("SHA-256 not available");
+		}
+	}
+
+	private String hashToString(int pos)
+	{
+		StringBuilder sb = new StringBuilder(2 * HASH_BYTES);
+		for (int i = 0; i < HASH_BYTES; i++) {
+			sb.append(String.format("%02x", buf.get(pos + i)));
+		}
+		return sb.toString();
+	}
+
+	private static String hashToString(byte[] hash)
+	{
+		StringBuilder sb = new StringBuilder(2 * HASH_BYTES);
+		for (byte b : hash) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	// Lookup/storage
+
+	/**
+	 * Look up a result. Returns null if there is no stored result, or if there is one
+	 * but it was computed with different settings (in which case it counts as an invalidation).
+	 * @param queryHash Query hash (see {@link #getQueryHash(String, PropertiesFile, Property)})
+	 * @param settingsHash Settings hash (see {@link #getSettingsHash(PrismSettings)})
+	 */
+	public synchronized Result lookUp(byte[] queryHash, byte[] settingsHash)
+	{
+		Integer pos = index.get(hashToString(queryHash));
+		if (pos == null) {
+			numMisses++;
+			return null;
+		}
+		int p = pos + 4 + HASH_BYTES;
+		for (int i = 0; i < HASH_BYTES; i++) {
+			if (buf.get(p + i) != settingsHash[i]) {
+				numInvalidations++;
+				numMisses++;
+				return null;
+			}
+		}
+		p += HASH_BYTES;
+		numHits++;
+		switch (buf.get(p)) {
+		case TYPE_BOOLEAN:
+			return new Result(buf.get(p + 1) != 0);
+		case TYPE_INTEGER:
+			return new Result(buf.getInt(p + 1));
+		case TYPE_DOUBLE:
+			return new Result(buf.getDouble(p + 1));
+		default:
+			byte[] bytes = new byte[buf.getInt(p + 1)];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = buf.get(p + 5 + i);
+			}
+			return new Result(new String(bytes, StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Store a result (appending it to the file).
+	 * @param queryHash Query hash (see {@link #getQueryHash(String, PropertiesFile, Property)})
+	 * @param settingsHash Settings hash (see {@link #getSettingsHash(PrismSettings)})
+	 * @param result The result
+	 */
+	public synchronized void store(byte[] queryHash, byte[] settingsHash, Result result) throws PrismException
+	{
+		Object value = result.getResult();
+		byte type;
+		byte[] bytes = null;
+		int valueBytes;
+		if (value instanceof Boolean) {
+			type = TYPE_BOOLEAN;
+			valueBytes = 1;
+		} else if (value instanceof Integer) {
+			type = TYPE_INTEGER;
+			valueBytes = 4;
+		} else if (value instanceof Double) {
+			type = TYPE_DOUBLE;
+			valueBytes = 8;
+		} else {
+			type = TYPE_STRING;
+			bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+			valueBytes = 4 + bytes.length;
+		}
+		int length = 4 + 2 * HASH_BYTES + 1 + valueBytes;
+		// Lock the file while appending, first picking up any records appended by others
+		try {
+			FileLock lock = channel.lock();
+			try {
+				readNewRecords();
+				if (end + length > buf.capacity()) {
+					map(Math.max(end + length, 2 * buf.capacity()));
+				}
+				writeRecord(queryHash, settingsHash, type, value, bytes, length);
+			} finally {
+				lock.release();
+			}
+		} catch (IOException e) {
+			throw new PrismException("Could not write to result cache \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Append a record at the end of data, and commit it. The file should be locked.
+	 */
+	private void writeRecord(byte[] queryHash, byte[] settingsHash, byte type, Object value, byte[] bytes, int length)
+	{
+		// Write the record and flush it to disk, then commit it by updating
+		// (and flushing) the end of data in the header, so that a crash at any point
+		// leaves either the old or the new end of data, and never a partial record before it
+		int p = end;
+		buf.putInt(p, length);
+		p += 4;
+		for (int i = 0; i < HASH_BYTES; i++) {
+			buf.put(p + i, queryHash[i]);
+			buf.put(p + HASH_BYTES + i, settingsHash[i]);
+		}
+		p += 2 * HASH_BYTES;
+		buf.put(p++, type);
+		switch (type) {
+		case TYPE_BOOLEAN:
+			buf.put(p, (byte) (((Boolean) value) ? 1 : 0));
+			break;
+		case TYPE_INTEGER:
+			buf.putInt(p, (Integer) value);
+			break;
+		case TYPE_DOUBLE:
+			buf.putDouble(p, (Double) value);
+			break;
+		default:
+			buf.putInt(p, bytes.length);
+			for (int i = 0; i < bytes.length; i++) {
+				buf.put(p + 4 + i, bytes[i]);
+			}
+		}
+		buf.force();
+		buf.putLong(8, end + length);
+		buf.force();
+		index.put(hashToString(queryHash), end);
+		end += length;
+	}
+
+	/**
+	 * Model check a property, using a stored result if there is a valid one,
+	 * and storing the result otherwise.
+	 * @param prism PRISM engine (with the model already loaded)
+	 * @param modelKey Description of the model (see {@link #getModelKey(ModulesFile)})
+	 * @param propertiesFile Properties file (with constants defined)
+	 * @param property The property to check
+	 */
+	public Result modelCheck(Prism prism, String modelKey, PropertiesFile propertiesFile, Property property) throws PrismException
+	{
+		byte[] queryHash = getQueryHash(modelKey, propertiesFile, property);
+		byte[] settingsHash = getSettingsHash(prism.getSettings());
+		Result result = lookUp(queryHash, settingsHash);
+		if (result == null) {
+			result = prism.modelCheck(propertiesFile, property);
+			store(queryHash, settingsHash, result);
+		}
+		return result;
+	}
+
+	// Statistics
+
+	public long getNumHits()
+	{
+		return numHits;
+	}
+
+	public long getNumMisses()
+	{
+		return numMisses;
+	}
+
+	public long getNumInvalidations()
+	{
+		return numInvalidations;
+	}
+
+	/**
+	 * Get the fraction of lookups that were hits (0 if there have been none).
+	 */
+	public double getHitRate()
+	{
+		long numLookups = numHits + numMisses;
+		return numLookups == 0 ? 0.0 : (double) numHits / numLookups;
+	}
+
+	/**
+	 * Get the number of distinct queries with stored results (valid or not).
+	 */
+	public int getNumEntries()
+	{
+		return index.size();
+	}
+
+	/**
+	 * Close the file (having flushed everything to disk).
+	 */
+	@Override
+	public synchronized void close() throws PrismException
+	{
+		try {
+			buf.force();
+			channel.close();
+			raf.close();
+		} catch (IOException e) {
+			throw new PrismException("Could not close result cache \"" + file + "\": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private ResultCache()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		new ResultCache().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+
+			// Parse and load a PRISM model from a file (as in ModelCheckFromFiles)
+			ModulesFile modulesFile = prism.parseModelFile(new File("examples/dice.pm"));
+			prism.loadPRISMModel(modulesFile);
+			PropertiesFile propertiesFile = prism.parsePropertiesFile(modulesFile, new File("examples/dice.pctl"));
+			String modelKey = getModelKey(modulesFile);
+			String constName = propertiesFile.getUndefinedConstantsUsedInProperty(propertiesFile.getPropertyObject(1)).get(0);
+
+			// Run the same queries three times (as separate "runs", each reopening the cache file),
+			// changing a setting that affects results before the last one
+			File cacheFile = new File("results.cache");
+			for (int run = 1; run <= 3; run++) {
+				if (run == 3) {
+					prism.getSettings().set(PrismSettings.PRISM_TERM_CRIT_PARAM, 1e-8);
+				}
+				long start = System.nanoTime();
+				try (ResultCache cache = new ResultCache(cacheFile)) {
+					System.out.println("Run " + run + " (" + cache.getNumEntries() + " stored results):");
+					System.out.println(propertiesFile.getPropertyObject(0) + ": " + cache.modelCheck(prism, modelKey, propertiesFile, propertiesFile.getPropertyObject(0)).getResult());
+					for (int k = 0; k <= 5; k++) {
+						Values vals = new Values();
+						vals.addValue(constName, Integer.valueOf(k));
+						propertiesFile.setSomeUndefinedConstants(vals);
+						Result result = cache.modelCheck(prism, modelKey, propertiesFile, propertiesFile.getPropertyObject(1));
+						System.out.println(propertiesFile.getPropertyObject(1) + " for " + vals + ": " + result.getResult());
+					}
+					long time = System.nanoTime() - start;
+					System.out.printf("Hits: %d, misses: %d (invalidated: %d), hit rate: %.2f, time: %.1f ms%n", cache.getNumHits(), cache.getNumMisses(), cache.getNumInvalidations(), cache.getHitRate(), time / 1e6);
+				}
+			}
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (FileNotFoundException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
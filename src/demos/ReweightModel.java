@@ -0,0 +1,112 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.util.Arrays;
+
+import prism.ModelGenerator;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+
+/**
+ * An example class demonstrating how to rebuild a model when only its transition probabilities
+ * change (e.g. a different value of {@code p} for {@link DTMCModelGenerator.RandomWalk},
+ * or of the failure probability for {@link MDPModelGenerator.GridModel}),
+ * using {@link ExplicitSparseModel#reweight}. This re-uses the existing states and transition structure,
+ * and just queries the model generator for the new probabilities, avoiding the computation
+ * and hashing of successor states needed to build the model from scratch.
+ * 
+ * The re-weighted model is an {@link ExplicitSparseModel}, for analysis by the other example classes
+ * (e.g. {@link BoundedAnalysis}); PRISM's own model checking cannot use it, and needs to build the model itself.
+ * So, the re-weighted model is checked by comparing it with one built from scratch for the new generator.
+ * 
+ * Running the class compares the time for a full rebuild and a re-weighting on some large models,
+ * and also reports the time for PRISM (explicit engine) to build the model.
+ */
+public class ReweightModel
+{
+	public static void main(String[] args)
+	{
+		new ReweightModel().run();
+	}
+
+	public void run()
+	{
+		try {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+			// Use the explicit engine, which (like ExplicitSparseModel) stores the model as sparse matrices
+			prism.setEngine(Prism.EXPLICIT);
+
+			for (int n : new int[] { 10000, 100000, 1000000 }) {
+				compare(prism, "RandomWalk(" + n + ", p), p=0.6 -> 0.7", new DTMCModelGenerator.RandomWalk(n, 0.6), new DTMCModelGenerator.RandomWalk(n, 0.7));
+			}
+			for (int n : new int[] { 100, 300, 600 }) {
+				compare(prism, "GridModel(" + n + "), failure x1 -> x0.5", new MDPModelGenerator.GridModel(n), new MDPModelGenerator.GridModel(n, 0.5));
+			}
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Build a model from one generator, then compare the time needed to get the model
+	 * for a second generator (same structure, different probabilities)
+	 * by re-weighting, by rebuilding it from scratch, and by rebuilding it in PRISM.
+	 * Each is timed as the best of several runs, after some warm-up runs.
+	 * For PRISM, only the construction is timed: the generator is loaded beforehand
+	 * (and {@code buildModel()} rebuilds the model each time it is called).
+	 */
+	private void compare(Prism prism, String name, ModelGenerator<Double> modelGen, ModelGenerator<Double> modelGenNew) throws PrismException
+	{
+		ExplicitSparseModel model = ExplicitSparseModel.build(modelGen);
+
+		ExplicitSparseModel[] rebuilt = new ExplicitSparseModel[1];
+		ExplicitSparseModel[] reweighted = new ExplicitSparseModel[1];
+		long timeReweight = Timing.bestTimeNanos(() -> reweighted[0] = model.reweight(modelGenNew));
+		long timeRebuild = Timing.bestTimeNanos(() -> rebuilt[0] = ExplicitSparseModel.build(modelGenNew));
+		prism.loadModelGenerator(modelGenNew);
+		long timePrism = Timing.bestTimeNanos(() -> prism.buildModel());
+
+		// States are explored in the same order, so the arrays should match exactly
+		boolean same = Arrays.equals(rebuilt[0].getProbabilities(), reweighted[0].getProbabilities()) && Arrays.equals(rebuilt[0].getSuccessors(), reweighted[0].getSuccessors());
+		System.out.println(name + ": " + model.getNumStates() + " states, " + model.getNumTransitions() + " transitions" + (same ? "" : " (MISMATCH)"));
+		System.out.printf("  rebuild %.1f ms, reweight %.1f ms (%.1fx faster), PRISM explicit build %.1f ms%n", timeRebuild / 1000000.0, timeReweight / 1000000.0, (double) timeRebuild / timeReweight, timePrism / 1000000.0);
+	}
+}
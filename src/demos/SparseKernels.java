@@ -0,0 +1,245 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+/**
+ * Kernels for multiplying a sparse matrix, stored in compressed sparse row (CSR) format
+ * as primitive arrays, by a vector. This is the inner loop of bounded (step-bounded or transient)
+ * analyses, which repeatedly multiply the same matrix by a vector.
+ * 
+ * Two backends are available: a plain scalar loop, and one that uses the JDK's
+ * (incubating) Vector API ({@code jdk.incubator.vector}). The latter is only available
+ * if that module has been added when compiling and running ({@code --add-modules jdk.incubator.vector});
+ * otherwise, {@link #create(Backend)} falls back to the scalar version. 
+ * 
+ * Matrices can also be converted to a sliced ELLPACK layout ({@link SlicedMatrix}), in which
+ * groups of rows are padded to equal length and stored column-major. This lets the vector backend
+ * process one slice of rows per vector, which is what makes it useful for the short rows
+ * (2-3 entries) typical of Markov chains, where vectorising along each row is not possible.
+ */
+public abstract class SparseKernels
+{
+	/**
+	 * Matrix-vector multiplication backend
+	 */
+	public enum Backend {
+		SCALAR, VECTOR
+	};
+
+	/**
+	 * Get the kernels for a backend, falling back to {@link Backend#SCALAR}
+	 * if the requested one is not available.
+	 */
+	public static SparseKernels create(Backend backend)
+	{
+		if (backend == Backend.VECTOR) {
+			try {
+				// Loaded reflectively so that this class does not depend on the Vector API module
+				return (SparseKernels) Class.forName("demos.VectorSparseKernels").getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError e) {
+				// Fall through to scalar version
+			}
+		}
+		return new ScalarSparseKernels();
+	}
+
+	/**
+	 * Get the backend actually used by these kernels.
+	 */
+	public abstract Backend getBackend();
+
+	/**
+	 * Multiply rows {@code first}, ..., {@code last}-1 of a CSR matrix by vector {@code x}, i.e.,
+	 * for each such row r, set {@code result[r]} to the sum of {@code vals[j] * x[cols[j]]}
+	 * over {@code rowStarts[r] <= j < rowStarts[r + 1]}.
+	 */
+	public abstract void multiply(int[] rowStarts, int[] cols, double[] vals, double[] x, double[] result, int first, int last);
+
+	/**
+	 * Get the number of rows per slice that suits these kernels (for {@link #slice(int[], int[], double[])}).
+	 */
+	public abstract int getSliceWidth();
+
+	/**
+	 * Multiply a matrix in sliced ELLPACK layout by vector {@code x}, storing the result in {@code result}.
+	 */
+	public abstract void multiply(SlicedMatrix matrix, double[] x, double[] result);
+
+	/**
+	 * Convert a CSR matrix to sliced ELLPACK layout, with slices of {@link #getSliceWidth()} rows.
+	 */
+	public SlicedMatrix slice(int[] rowStarts, int[] cols, double[] vals)
+	{
+		return new SlicedMatrix(rowStarts, cols, vals, getSliceWidth());
+	}
+
+	/**
+	 * A sparse matrix in sliced ELLPACK layout: rows are grouped into slices of {@code sliceWidth}
+	 * consecutive rows, each slice is padded to the length of its longest row (with zero entries
+	 * in column 0) and stored column-major, i.e., entry j of every row in a slice is contiguous.
+	 * The last slice is padded with empty rows if needed.
+	 */
+	public static class SlicedMatrix
+	{
+		// Number of rows and rows per slice
+		private int numRows;
+		private int sliceWidth;
+		// Offset of each slice in the arrays below (length numSlices + 1);
+		// the (padded) row length of slice k is (sliceStarts[k + 1] - sliceStarts[k]) / sliceWidth
+		private int[] sliceStarts;
+		// Column index and value for each (possibly padding) entry
+		private int[] cols;
+		private double[] vals;
+		// Number of actual (non-padding) entries
+		private int numEntries;
+
+		public SlicedMatrix(int[] rowStarts, int[] cols, double[] vals, int sliceWidth)
+		{
+			this.numRows = rowStarts.length - 1;
+			this.sliceWidth = sliceWidth;
+			int numSlices = (numRows + sliceWidth - 1) / sliceWidth;
+			sliceStarts = new int[numSlices + 1];
+			for (int k = 0; k < numSlices; k++) {
+				int length = 0;
+				for (int r = k * sliceWidth; r < Math.min(numRows, (k + 1) * sliceWidth); r++) {
+					length = Math.max(length, rowStarts[r + 1] - rowStarts[r]);
+				}
+				sliceStarts[k + 1] = sliceStarts[k] + length * sliceWidth;
+			}
+			this.cols = new int[sliceStarts[numSlices]];
+			this.vals = new double[sliceStarts[numSlices]];
+			for (int r = 0; r < numRows; r++) {
+				int base = sliceStarts[r / sliceWidth] + r % sliceWidth;
+				for (int j = rowStarts[r]; j < rowStarts[r + 1]; j++) {
+					int k = base + (j - rowStarts[r]) * sliceWidth;
+					this.cols[k] = cols[j];
+					this.vals[k] = vals[j];
+				}
+			}
+			numEntries = rowStarts[numRows];
+		}
+
+		public int getNumRows()
+		{
+			return numRows;
+		}
+
+		public int getSliceWidth()
+		{
+			return sliceWidth;
+		}
+
+		public int getNumSlices()
+		{
+			return sliceStarts.length - 1;
+		}
+
+		public int[] getSliceStarts()
+		{
+			return sliceStarts;
+		}
+
+		public int[] getCols()
+		{
+			return cols;
+		}
+
+		public double[] getVals()
+		{
+			return vals;
+		}
+
+		/**
+		 * Get the fraction of stored entries that are actual (non-padding) entries.
+		 */
+		public double getFillRatio()
+		{
+			return vals.length == 0 ? 1.0 : (double) numEntries / vals.length;
+		}
+	}
+
+	/**
+	 * Plain scalar implementation.
+	 */
+	static class ScalarSparseKernels extends SparseKernels
+	{
+		@Override
+		public Backend getBackend()
+		{
+			return Backend.SCALAR;
+		}
+
+		@Override
+		public void multiply(int[] rowStarts, int[] cols, double[] vals, double[] x, double[] result, int first, int last)
+		{
+			for (int r = first; r < last; r++) {
+				double sum = 0.0;
+				int end = rowStarts[r + 1];
+				for (int j = rowStarts[r]; j < end; j++) {
+					sum += vals[j] * x[cols[j]];
+				}
+				result[r] = sum;
+			}
+		}
+
+		@Override
+		public int getSliceWidth()
+		{
+			// One row per slice, i.e., the same as CSR (without padding)
+			return 1;
+		}
+
+		@Override
+		public void multiply(SlicedMatrix matrix, double[] x, double[] result)
+		{
+			multiplySliced(matrix, x, result, 0, matrix.getNumSlices());
+		}
+	}
+
+	/**
+	 * Scalar multiplication for slices {@code first}, ..., {@code last}-1 of a sliced matrix.
+	 */
+	static void multiplySliced(SlicedMatrix matrix, double[] x, double[] result, int first, int last)
+	{
+		int width = matrix.getSliceWidth();
+		int numRows = matrix.getNumRows();
+		int[] sliceStarts = matrix.getSliceStarts();
+		int[] cols = matrix.getCols();
+		double[] vals = matrix.getVals();
+		for (int k = first; k < last; k++) {
+			int base = k * width;
+			int rows = Math.min(width, numRows - base);
+			for (int lane = 0; lane < rows; lane++) {
+				double sum = 0.0;
+				for (int j = sliceStarts[k] + lane; j < sliceStarts[k + 1]; j += width) {
+					sum += vals[j] * x[cols[j]];
+				}
+				result[base + lane] = sum;
+			}
+		}
+	}
+}
@@ -0,0 +1,611 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import parser.Values;
+import parser.ast.ModulesFile;
+import parser.ast.PropertiesFile;
+import parser.ast.Property;
+import prism.Prism;
+import prism.PrismDevNullLog;
+import prism.PrismException;
+import prism.PrismLog;
+import prism.UndefinedConstants;
+
+/**
+ * A coordinator which distributes the points of a sweep over undefined constants
+ * (as done for a single constant by {@link ModelCheckFromFiles}) across several worker JVMs,
+ * since a single {@link prism.Prism} engine cannot safely be used by multiple threads.
+ * 
+ * Workers are launched with the same Java command, classpath, library path and
+ * {@code PRISM_JAVA_OPTS} as the coordinator (i.e., as set up by {@code bin/run}),
+ * and with the same environment (so {@code LD_LIBRARY_PATH} is inherited too).
+ * They connect back to the coordinator over a local socket and request one point at a time.
+ * Points are initially split into contiguous blocks, one per worker (so that consecutive points,
+ * which often share model constants, stay on the same worker); a worker whose block is used up
+ * steals from the end of the largest remaining block. If a worker dies, its outstanding point
+ * and the rest of its block are re-queued for the others (this includes a worker that dies
+ * before connecting, which is detected by checking the worker processes while waiting for connections). Results are merged in sweep order.
+ * 
+ * Running the class measures scaling from 1 worker up to the number of cores
+ * for a sweep over {@code nacl.sm}, and then repeats the sweep with a worker that crashes.
+ */
+public class SweepCoordinator
+{
+	// Timeout (ms) when waiting for worker connections, after which workers are checked for liveness
+	private static final int ACCEPT_TIMEOUT = 200;
+	// Value of crashAfter for a worker which should crash before connecting (for testing)
+	public static final int CRASH_BEFORE_CONNECTING = -2;
+
+	// Sweep definition
+	private String modelFilename;
+	private String propertiesFilename;
+	private int propertyIndex;
+	private String constSwitch;
+	// Descriptions of the sweep points
+	private List<String> pointNames;
+	private int numPoints;
+
+	// State of the current sweep (guarded by this):
+	// block of points remaining for each worker
+	private ArrayDeque<Integer>[] blocks;
+	// results (as strings), and whether each one is an error
+	private String[] results;
+	private boolean[] errors;
+	private int numDone;
+	private int numLive;
+	// whether each worker has connected (and identified itself), or died before doing so
+	private boolean[] connected;
+	private boolean[] failed;
+	// statistics
+	private int[] numPointsPerWorker;
+	private int numSteals;
+	private int numRequeued;
+	private int numErrors;
+
+	/**
+	 * Create a coordinator for a sweep.
+	 * @param modelFilename Model file
+	 * @param propertiesFilename Properties file
+	 * @param propertyIndex Index of the property to check (within the properties file)
+	 * @param constSwitch Constant values/ranges, in the format of PRISM's -const switch (e.g. "x=0:2")
+	 */
+	public SweepCoordinator(String modelFilename, String propertiesFilename, int propertyIndex, String constSwitch) throws FileNotFoundException, PrismException
+	{
+		this.modelFilename = modelFilename;
+		this.propertiesFilename = propertiesFilename;
+		this.propertyIndex = propertyIndex;
+		this.constSwitch = constSwitch;
+		// Enumerate the points (the engine is only used for parsing here)
+		Prism prism = new Prism(new PrismDevNullLog());
+		prism.initialise();
+		Sweep sweep = new Sweep(prism, modelFilename, propertiesFilename, propertyIndex, constSwitch);
+		pointNames = new ArrayList<>();
+		for (int i = 0; i < sweep.getNumPoints(); i++) {
+			pointNames.add(sweep.getPointName(i));
+		}
+		numPoints = pointNames.size();
+		prism.closeDown();
+	}
+
+	/**
+	 * Get the number of points in the sweep.
+	 */
+	public int getNumPoints()
+	{
+		return numPoints;
+	}
+
+	/**
+	 * Get a description of the {@code i}th point of the sweep.
+	 */
+	public String getPointName(int i)
+	{
+		return pointNames.get(i);
+	}
+
+	public int getNumSteals()
+	{
+		return numSteals;
+	}
+
+	public int getNumRequeued()
+	{
+		return numRequeued;
+	}
+
+	/**
+	 * Get the number of points of the last sweep whose model checking gave an error.
+	 */
+	public int getNumErrors()
+	{
+		return numErrors;
+	}
+
+	public int[] getNumPointsPerWorker()
+	{
+		return numPointsPerWorker;
+	}
+
+	/**
+	 * Run the sweep using worker JVMs, returning the results (as strings) in sweep order.
+	 * Points whose model checking gave an error have a result starting with "Error: "
+	 * (see {@link #getNumErrors()}).
+	 * @param numWorkers Number of workers
+	 * @param crashWorker Index of a worker which should crash (for testing), or -1 for none
+	 * @param crashAfter Number of points that the crashing worker completes before crashing
+	 * (or {@link #CRASH_BEFORE_CONNECTING})
+	 */
+	@SuppressWarnings("unchecked")
+	public String[] run(int numWorkers, int crashWorker, int crashAfter) throws PrismException
+	{
+		// Split the points into contiguous blocks
+		blocks = new ArrayDeque[numWorkers];
+		for (int w = 0; w < numWorkers; w++) {
+			blocks[w] = new ArrayDeque<>();
+			for (int i = (int) ((long) numPoints * w / numWorkers); i < (long) numPoints * (w + 1) / numWorkers; i++) {
+				blocks[w].add(i);
+			}
+		}
+		results = new String[numPoints];
+		errors = new boolean[numPoints];
+		numDone = 0;
+		numLive = numWorkers;
+		connected = new boolean[numWorkers];
+		failed = new boolean[numWorkers];
+		numPointsPerWorker = new int[numWorkers];
+		numSteals = 0;
+		numRequeued = 0;
+		numErrors = 0;
+
+		List<Process> processes = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		try (ServerSocket server = new ServerSocket(0, numWorkers, InetAddress.getLoopbackAddress())) {
+			// Launch workers
+			for (int w = 0; w < numWorkers; w++) {
+				processes.add(launchWorker(server.getLocalPort(), w, w == crashWorker ? crashAfter : -1));
+			}
+			// Accept connections (in whatever order) and serve each one on its own thread,
+			// until each worker has either connected or died (or the sweep is finished)
+			server.setSoTimeout(ACCEPT_TIMEOUT);
+			while (awaitingConnections(processes)) {
+				try {
+					Socket socket = server.accept();
+					Thread thread = new Thread(() -> serveWorker(socket));
+					thread.start();
+					threads.add(thread);
+				} catch (SocketTimeoutException e) {
+					// Check again for workers that have died
+				}
+			}
+			// Wait until done (or until all workers have died)
+			synchronized (this) {
+				while (numDone < numPoints && numLive > 0) {
+					wait();
+				}
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			for (int w = 0; w < numWorkers; w++) {
+				if (connected[w]) {
+					processes.get(w).waitFor();
+				}
+			}
+		} catch (IOException e) {
+			throw new PrismException("Error communicating with workers: " + e.getMessage());
+		} catch (InterruptedException e) {
+			throw new PrismException("Interrupted while waiting for workers");
+		} finally {
+			for (Process process : processes) {
+				process.destroy();
+			}
+		}
+		if (numDone < numPoints) {
+			throw new PrismException("All workers failed (" + (numPoints - numDone) + " points not done)");
+		}
+		for (int i = 0; i < numPoints; i++) {
+			if (errors[i]) {
+				results[i] = "Error: " + results[i];
+				numErrors++;
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Check whether there are still workers that are alive but have not yet connected
+	 * (and the sweep is not finished). Any worker that has died before connecting is treated
+	 * as failed: it is no longer counted as live and its block is left for the others to steal.
+	 */
+	private synchronized boolean awaitingConnections(List<Process> processes)
+	{
+		if (numDone == numPoints) {
+			return false;
+		}
+		boolean awaiting = false;
+		for (int w = 0; w < processes.size(); w++) {
+			if (!connected[w] && !failed[w]) {
+				if (processes.get(w).isAlive()) {
+					awaiting = true;
+				} else {
+					failed[w] = true;
+					numLive--;
+					requeue(w, -1);
+				}
+			}
+		}
+		return awaiting;
+	}
+
+	/**
+	 * Launch a worker JVM, set up in the same way as this one.
+	 */
+	private Process launchWorker(int port, int worker, int crashAfter) throws IOException
+	{
+		List<String> cmd = new ArrayList<>();
+		cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		String javaOpts = System.getenv("PRISM_JAVA_OPTS");
+		if (javaOpts != null && !javaOpts.trim().isEmpty()) {
+			cmd.addAll(Arrays.asList(javaOpts.trim().split("\\s+")));
+		}
+		cmd.add("-Djava.library.path=" + System.getProperty("java.library.path"));
+		cmd.add("-classpath");
+		cmd.add(System.getProperty("java.class.path"));
+		cmd.add(SweepCoordinator.class.getName());
+		cmd.addAll(Arrays.asList("worker", "" + port, "" + worker, "" + crashAfter, modelFilename, propertiesFilename, "" + propertyIndex, constSwitch));
+		ProcessBuilder pb = new ProcessBuilder(cmd);
+		pb.inheritIO();
+		return pb.start();
+	}
+
+	/**
+	 * Serve requests from a worker until there are no more points or the worker fails.
+	 */
+	private void serveWorker(Socket socket)
+	{
+		int worker = -1;
+		int point = -1;
+		try (Socket s = socket; DataInputStream in = new DataInputStream(s.getInputStream()); DataOutputStream out = new DataOutputStream(s.getOutputStream())) {
+			int id = in.readInt();
+			synchronized (this) {
+				// Ignore a worker already treated as failed (it died before we saw it connect)
+				if (failed[id]) {
+					return;
+				}
+				connected[id] = true;
+			}
+			worker = id;
+			while (true) {
+				point = nextPoint(worker);
+				out.writeInt(point);
+				out.flush();
+				if (point == -1) {
+					break;
+				}
+				int done = in.readInt();
+				boolean error = in.readBoolean();
+				String result = in.readUTF();
+				completed(worker, done, result, error);
+				point = -1;
+			}
+		} catch (IOException e) {
+			// Worker failed: re-queue its current point (the rest of its block remains available)
+			if (worker != -1) {
+				requeue(worker, point);
+			}
+		}
+		// (a worker that failed before identifying itself is dealt with when its process has died)
+		if (worker != -1) {
+			synchronized (this) {
+				numLive--;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Get the next point for a worker: from its own block if possible, otherwise stolen from
+	 * the largest remaining block. If there are none, wait until either all points are done
+	 * (then return -1) or some are re-queued.
+	 */
+	private synchronized int nextPoint(int worker) throws IOException
+	{
+		while (true) {
+			if (!blocks[worker].isEmpty()) {
+				return blocks[worker].pollFirst();
+			}
+			int victim = -1;
+			for (int w = 0; w < blocks.length; w++) {
+				if (!blocks[w].isEmpty() && (victim == -1 || blocks[w].size() > blocks[victim].size())) {
+					victim = w;
+				}
+			}
+			if (victim != -1) {
+				numSteals++;
+				return blocks[victim].pollLast();
+			}
+			if (numDone == numPoints) {
+				return -1;
+			}
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				throw new IOException("Interrupted");
+			}
+		}
+	}
+
+	private synchronized void completed(int worker, int point, String result, boolean error)
+	{
+		if (results[point] == null) {
+			results[point] = result;
+			errors[point] = error;
+			numDone++;
+			numPointsPerWorker[worker]++;
+		}
+		notifyAll();
+	}
+
+	private synchronized void requeue(int worker, int point)
+	{
+		if (point != -1 && results[point] == null) {
+			blocks[worker].addFirst(point);
+		}
+		numRequeued += blocks[worker].size();
+		notifyAll();
+	}
+
+	/**
+	 * The points of a sweep, enumerated with {@link prism.UndefinedConstants}
+	 * (model constants in the outer loop, property constants in the inner loop),
+	 * and the means to model check any one of them.
+	 */
+	private static class Sweep
+	{
+		private Prism prism;
+		private ModulesFile modulesFile;
+		private PropertiesFile propertiesFile;
+		private Property property;
+		private List<Values> mfValues = new ArrayList<>();
+		private List<Values> pfValues = new ArrayList<>();
+		private int numPropertyIterations;
+		// Index of the model constant values currently loaded (-1 if none)
+		private int loadedModel = -1;
+
+		public Sweep(Prism prism, String modelFilename, String propertiesFilename, int propertyIndex, String constSwitch) throws FileNotFoundException, PrismException
+		{
+			this.prism = prism;
+			modulesFile = prism.parseModelFile(new File(modelFilename));
+			propertiesFile = prism.parsePropertiesFile(modulesFile, new File(propertiesFilename));
+			property = propertiesFile.getPropertyObject(propertyIndex);
+			UndefinedConstants undefConsts = new UndefinedConstants(modulesFile, propertiesFile, property);
+			undefConsts.defineUsingConstSwitch(constSwitch);
+			numPropertyIterations = undefConsts.getNumPropertyIterations();
+			for (int m = 0; m < undefConsts.getNumModelIterations(); m++) {
+				mfValues.add(undefConsts.getMFConstantValues());
+				undefConsts.iterateModel();
+			}
+			for (int p = 0; p < numPropertyIterations; p++) {
+				pfValues.add(undefConsts.getPFConstantValues());
+				undefConsts.iterateProperty();
+			}
+		}
+
+		public int getNumPoints()
+		{
+			return mfValues.size() * numPropertyIterations;
+		}
+
+		public String getPointName(int i)
+		{
+			return property + " for " + mfValues.get(i / numPropertyIterations) + (pfValues.get(i % numPropertyIterations).getNumValues() > 0 ? "," + pfValues.get(i % numPropertyIterations) : "");
+		}
+
+		/**
+		 * Model check the {@code i}th point (only reloading the model if its constants have changed).
+		 */
+		public String check(int i) throws PrismException
+		{
+			int m = i / numPropertyIterations;
+			if (m != loadedModel) {
+				prism.loadPRISMModel(modulesFile);
+				prism.setPRISMModelConstants(mfValues.get(m));
+				loadedModel = m;
+			}
+			propertiesFile.setSomeUndefinedConstants(pfValues.get(i % numPropertyIterations));
+			return String.valueOf(prism.modelCheck(propertiesFile, property).getResult());
+		}
+	}
+
+	/**
+	 * Run as a worker: connect to the coordinator and check points until told to stop.
+	 */
+	private static void runWorker(String[] args)
+	{
+		int port = Integer.parseInt(args[1]);
+		int worker = Integer.parseInt(args[2]);
+		int crashAfter = Integer.parseInt(args[3]);
+		if (crashAfter == CRASH_BEFORE_CONNECTING) {
+			// Simulate a crash (e.g. during JVM start-up)
+			Runtime.getRuntime().halt(1);
+		}
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port); DataInputStream in = new DataInputStream(socket.getInputStream()); DataOutputStream out = new DataOutputStream(socket.getOutputStream())) {
+			// Create a log for PRISM output (hidden or stdout)
+			PrismLog mainLog = new PrismDevNullLog();
+			//PrismLog mainLog = new PrismFileLog("stdout");
+
+			// Initialise PRISM engine 
+			Prism prism = new Prism(mainLog);
+			prism.initialise();
+			Sweep sweep = new Sweep(prism, args[4], args[5], Integer.parseInt(args[6]), args[7]);
+
+			out.writeInt(worker);
+			out.flush();
+			int numChecked = 0;
+			while (true) {
+				int point = in.readInt();
+				if (point == -1) {
+					break;
+				}
+				if (numChecked == crashAfter) {
+					// Simulate a crash (without any clean-up)
+					Runtime.getRuntime().halt(1);
+				}
+				String result;
+				boolean error = false;
+				try {
+					result = sweep.check(point);
+				} catch (PrismException e) {
+					result = e.getMessage();
+					error = true;
+				}
+				out.writeInt(point);
+				out.writeBoolean(error);
+				out.writeUTF(result);
+				out.flush();
+				numChecked++;
+			}
+
+			// Close down PRISM
+			prism.closeDown();
+
+		} catch (IOException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Constructor used only to run the example (see {@link #main(String[])}).
+	 */
+	private SweepCoordinator()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		if (args.length > 0 && args[0].equals("worker")) {
+			runWorker(args);
+		} else {
+			new SweepCoordinator().run();
+		}
+	}
+
+	public void run()
+	{
+		try {
+			// Sweep over model constants N1, N2 and property constant T
+			SweepCoordinator coord = new SweepCoordinator("examples/nacl.sm", "examples/nacl.csl", 1, "N1=10:10:40,N2=10:10:40,T=0.002:0.002:0.01");
+			int numCores = Runtime.getRuntime().availableProcessors();
+			System.out.println("Sweep of " + coord.getNumPoints() + " points, up to " + numCores + " workers");
+
+			// Measure scaling, from 1 worker up to the number of cores
+			String[] results1 = null;
+			double time1 = 0;
+			for (int numWorkers = 1; numWorkers <= numCores; numWorkers = numWorkers < numCores && 2 * numWorkers > numCores ? numCores : 2 * numWorkers) {
+				long start = System.nanoTime();
+				String[] results = coord.run(numWorkers, -1, 0);
+				double time = (System.nanoTime() - start) / 1e9;
+				if (numWorkers == 1) {
+					// Errors here are failures (rather than results that later sweeps should match)
+					if (coord.getNumErrors() > 0) {
+						throw new PrismException(coord.getNumErrors() + " points of the sweep failed, e.g. " + firstError(coord, results));
+					}
+					results1 = results;
+					time1 = time;
+				}
+				System.out.printf("%d worker(s): %.2f s, speedup %.2f, %d steals, points per worker %s%s%n", numWorkers, time, time1 / time, coord.getNumSteals(), Arrays.toString(coord.getNumPointsPerWorker()), compare(coord, results, results1));
+			}
+
+			// Repeat with a worker that crashes after a few points
+			int numWorkers = Math.min(4, numCores);
+			String[] results = coord.run(numWorkers, 0, 3);
+			System.out.println(numWorkers + " worker(s), one crashing: " + coord.getNumRequeued() + " points re-queued, points per worker " + Arrays.toString(coord.getNumPointsPerWorker()) + compare(coord, results, results1));
+
+			// And with a worker that crashes before connecting (if there is more than one)
+			if (numWorkers > 1) {
+				String[] resultsNoConnect = coord.run(numWorkers, 1, CRASH_BEFORE_CONNECTING);
+				System.out.println(numWorkers + " worker(s), one never connecting: " + coord.getNumRequeued() + " points re-queued, points per worker " + Arrays.toString(coord.getNumPointsPerWorker()) + compare(coord, resultsNoConnect, results1));
+			}
+
+			// Print the (merged) results
+			for (int i = 0; i < coord.getNumPoints(); i++) {
+				System.out.println(coord.getPointName(i) + ": " + results[i]);
+			}
+
+		} catch (FileNotFoundException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		} catch (PrismException e) {
+			System.out.println("Error: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Compare the results of the last sweep with reference results: a suffix for the summary line,
+	 * which is empty if they match and there were no errors.
+	 */
+	private static String compare(SweepCoordinator coord, String[] results, String[] resultsRef)
+	{
+		if (coord.getNumErrors() > 0) {
+			return " (" + coord.getNumErrors() + " ERRORS, e.g. " + firstError(coord, results) + ")";
+		}
+		return Arrays.equals(results, resultsRef) ? "" : " (MISMATCH)";
+	}
+
+	/**
+	 * Get the first point of a sweep that gave an error, and the error.
+	 */
+	private static String firstError(SweepCoordinator coord, String[] results)
+	{
+		for (int i = 0; i < results.length; i++) {
+			if (coord.errors[i]) {
+				return coord.getPointName(i) + ": " + results[i];
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,66 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import prism.PrismException;
+
+/**
+ * Timing for the benchmarks in the example classes:
+ * a computation is run a few times first (so that the JIT compiler has done its work),
+ * and the fastest of several further runs is reported.
+ */
+public class Timing
+{
+	// Number of untimed warm-up runs, and of timed runs
+	private static final int NUM_WARM_UP = 3;
+	private static final int NUM_RUNS = 5;
+
+	/**
+	 * A computation to be timed.
+	 */
+	public interface Computation
+	{
+		void run() throws PrismException;
+	}
+
+	/**
+	 * Time a computation, in nanoseconds (the best of several runs, after some warm-up runs).
+	 */
+	public static long bestTimeNanos(Computation computation) throws PrismException
+	{
+		for (int i = 0; i < NUM_WARM_UP; i++) {
+			computation.run();
+		}
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < NUM_RUNS; i++) {
+			long start = System.nanoTime();
+			computation.run();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best;
+	}
+}
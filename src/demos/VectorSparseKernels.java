@@ -0,0 +1,112 @@
+//==============================================================================
+//	
+//	Copyright (c) 2026-
+//	Authors:
+//	* agent <agent@local>
+//	
+//------------------------------------------------------------------------------
+//	
+//	This file is part of PRISM.
+//	
+//	PRISM is free software; you can redistribute it and/or modify
+//	it under the terms of the GNU General Public License as published by
+//	the Free Software Foundation; either version 2 of the License, or
+//	(at your option) any later version.
+//	
+//	PRISM is distributed in the hope that it will be useful,
+//	but WITHOUT ANY WARRANTY; without even the implied warranty of
+//	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//	GNU General Public License for more details.
+//	
+//	You should have received a copy of the GNU General Public License
+//	along with PRISM; if not, write to the Free Software Foundation,
+//	Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+//	
+//==============================================================================
+
+package demos;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of {@link SparseKernels} using the JDK Vector API.
+ * Each row is processed in chunks of the preferred vector width,
+ * gathering the required entries of x using the column indices,
+ * with a scalar loop for the remainder of the row.
+ * So, rows shorter than the vector width run entirely through the scalar loop;
+ * for such matrices, the sliced layout ({@link SparseKernels.SlicedMatrix}) should be used instead,
+ * for which each vector holds one entry from each of the rows in a slice.
+ * 
+ * This needs {@code --add-modules jdk.incubator.vector} (JDK 16 or later) to compile and run;
+ * it is not referenced directly elsewhere (see {@link SparseKernels#create(Backend)}).
+ */
+class VectorSparseKernels extends SparseKernels
+{
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	@Override
+	public Backend getBackend()
+	{
+		return Backend.VECTOR;
+	}
+
+	@Override
+	public void multiply(int[] rowStarts, int[] cols, double[] vals, double[] x, double[] result, int first, int last)
+	{
+		int width = SPECIES.length();
+		for (int r = first; r < last; r++) {
+			int start = rowStarts[r];
+			int end = rowStarts[r + 1];
+			int j = start;
+			double sum = 0.0;
+			if (end - start >= width) {
+				int bound = start + SPECIES.loopBound(end - start);
+				DoubleVector acc = DoubleVector.zero(SPECIES);
+				for (; j < bound; j += width) {
+					DoubleVector v = DoubleVector.fromArray(SPECIES, vals, j);
+					DoubleVector xv = DoubleVector.fromArray(SPECIES, x, 0, cols, j);
+					acc = v.fma(xv, acc);
+				}
+				sum = acc.reduceLanes(VectorOperators.ADD);
+			}
+			for (; j < end; j++) {
+				sum += vals[j] * x[cols[j]];
+			}
+			result[r] = sum;
+		}
+	}
+
+	@Override
+	public int getSliceWidth()
+	{
+		return SPECIES.length();
+	}
+
+	@Override
+	public void multiply(SlicedMatrix matrix, double[] x, double[] result)
+	{
+		int width = SPECIES.length();
+		if (matrix.getSliceWidth() != width) {
+			// Not sliced for this vector width
+			multiplySliced(matrix, x, result, 0, matrix.getNumSlices());
+			return;
+		}
+		int[] sliceStarts = matrix.getSliceStarts();
+		int[] cols = matrix.getCols();
+		double[] vals = matrix.getVals();
+		// All full slices with vectors, then the last (partial) one, if any, with scalars
+		int numFull = matrix.getNumRows() / width;
+		for (int k = 0; k < numFull; k++) {
+			DoubleVector acc = DoubleVector.zero(SPECIES);
+			for (int j = sliceStarts[k]; j < sliceStarts[k + 1]; j += width) {
+				DoubleVector v = DoubleVector.fromArray(SPECIES, vals, j);
+				DoubleVector xv = DoubleVector.fromArray(SPECIES, x, 0, cols, j);
+				acc = v.fma(xv, acc);
+			}
+			acc.intoArray(result, k * width);
+		}
+		multiplySliced(matrix, x, result, numFull, matrix.getNumSlices());
+	}
+}